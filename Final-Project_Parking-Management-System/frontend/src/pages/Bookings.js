@@ -7,17 +7,22 @@ import {
   Chip
 } from '@mui/material';
 import { BookOnline as BookingIcon } from '@mui/icons-material';
+import { newIdempotencyKey, idempotencyHeaders } from '../utils/idempotency';
 
 const Bookings = () => {
   const { user } = useAuth();
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [bookings, setBookings] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [selectedBooking, setSelectedBooking] = useState(null);
   const [openDialog, setOpenDialog] = useState(false);
   const [actionLoading, setActionLoading] = useState(false);
   const [actionSuccess, setActionSuccess] = useState('');
   const [actionError, setActionError] = useState('');
+  // One key per opened dialog, so repeated clicks complete or cancel the booking only once
+  const [actionKey, setActionKey] = useState('');
 
   useEffect(() => {
     fetchBookings();
@@ -29,7 +34,8 @@ const Bookings = () => {
       setError('');
       
       const response = await axios.get(`/api/bookings/user/${user.id}`);
-      setBookings(response.data);
+      setBookings(response.data.bookings);
+      setNextCursor(response.data.nextCursor);
     } catch (err) {
       setError('Failed to load bookings. Please try again later.');
       console.error(err);
@@ -38,8 +44,24 @@ const Bookings = () => {
     }
   };
 
+  const fetchMoreBookings = async () => {
+    try {
+      setLoadingMore(true);
+      
+      const response = await axios.get(`/api/bookings/user/${user.id}`, { params: { cursor: nextCursor } });
+      setBookings(previous => [...previous, ...response.data.bookings]);
+      setNextCursor(response.data.nextCursor);
+    } catch (err) {
+      setError('Failed to load more bookings. Please try again later.');
+      console.error(err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleOpenDialog = (booking) => {
     setSelectedBooking(booking);
+    setActionKey(newIdempotencyKey());
     setOpenDialog(true);
     setActionSuccess('');
     setActionError('');
@@ -58,7 +80,8 @@ const Bookings = () => {
       setActionLoading(true);
       setActionError('');
       
-      const response = await axios.put(`/api/bookings/complete/${selectedBooking.id}`);
+      const response = await axios.put(`/api/bookings/complete/${selectedBooking.id}`, null,
+        idempotencyHeaders(`${actionKey}-complete`));
       
       setActionSuccess('Booking completed successfully!');
       setTimeout(() => {
@@ -79,7 +102,8 @@ const Bookings = () => {
       setActionLoading(true);
       setActionError('');
       
-      const response = await axios.put(`/api/bookings/cancel/${selectedBooking.id}`);
+      const response = await axios.put(`/api/bookings/cancel/${selectedBooking.id}`, null,
+        idempotencyHeaders(`${actionKey}-cancel`));
       
       setActionSuccess('Booking cancelled successfully!');
       setTimeout(() => {
@@ -170,6 +194,13 @@ const Bookings = () => {
               </Paper>
             </Grid>
           ))}
+          {nextCursor && (
+            <Grid item xs={12} sx={{ textAlign: 'center' }}>
+              <Button variant="outlined" onClick={fetchMoreBookings} disabled={loadingMore}>
+                {loadingMore ? <CircularProgress size={24} /> : 'Load more'}
+              </Button>
+            </Grid>
+          )}
         </Grid>
       )}
       
@@ -32,20 +32,15 @@ const Dashboard = () => {
       const bookingsResponse = await axios.get(`/api/bookings/active/user/${user.id}`);
       setActiveBookings(bookingsResponse.data);
       
-      // Fetch all user bookings for stats
-      const allBookingsResponse = await axios.get(`/api/bookings/user/${user.id}`);
-      const allBookings = allBookingsResponse.data;
-      
-      // Calculate stats
-      const completed = allBookings.filter(booking => booking.status === 'COMPLETED').length;
-      const cancelled = allBookings.filter(booking => booking.status === 'CANCELLED').length;
-      const active = allBookings.filter(booking => booking.status === 'ACTIVE').length;
+      // Fetch per-status booking counts for stats
+      const countsResponse = await axios.get(`/api/bookings/user/${user.id}/counts`);
+      const counts = countsResponse.data;
       
       setStats({
-        totalBookings: allBookings.length,
-        activeBookings: active,
-        completedBookings: completed,
-        cancelledBookings: cancelled
+        totalBookings: Object.values(counts).reduce((total, count) => total + count, 0),
+        activeBookings: counts.ACTIVE,
+        completedBookings: counts.COMPLETED,
+        cancelledBookings: counts.CANCELLED
       });
     } catch (err) {
       setError('Failed to load dashboard data. Please try again later.');
@@ -7,6 +7,7 @@ import {
   TextField, FormControl, InputLabel, Select, MenuItem
 } from '@mui/material';
 import { LocalParking as ParkingIcon } from '@mui/icons-material';
+import { newIdempotencyKey, idempotencyHeaders } from '../utils/idempotency';
 
 const ParkingSlots = () => {
   const { user } = useAuth();
@@ -21,6 +22,8 @@ const ParkingSlots = () => {
   });
   const [bookingError, setBookingError] = useState('');
   const [bookingSuccess, setBookingSuccess] = useState(false);
+  // Same key while the booking form is unchanged, so a double submit books only once
+  const [bookingKey, setBookingKey] = useState('');
 
   useEffect(() => {
     fetchParkingSlots();
@@ -43,6 +46,7 @@ const ParkingSlots = () => {
 
   const handleBookingOpen = (slot) => {
     setSelectedSlot(slot);
+    setBookingKey(newIdempotencyKey());
     setOpenBookingDialog(true);
     setBookingError('');
     setBookingSuccess(false);
@@ -62,6 +66,7 @@ const ParkingSlots = () => {
 
   const handleBookingChange = (e) => {
     const { name, value } = e.target;
+    setBookingKey(newIdempotencyKey());
     setBookingData(prev => ({
       ...prev,
       [name]: value
@@ -86,7 +91,7 @@ const ParkingSlots = () => {
         status: 'ACTIVE'
       };
       
-      const response = await axios.post('/api/bookings', booking);
+      const response = await axios.post('/api/bookings', booking, idempotencyHeaders(bookingKey));
       
       setBookingSuccess(true);
       setTimeout(() => {
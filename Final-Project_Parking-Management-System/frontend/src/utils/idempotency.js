@@ -0,0 +1,8 @@
+// Key sent in the Idempotency-Key header so a resubmitted or retried request is only applied once.
+// Create a new key for each distinct action, and reuse it when the same action is sent again.
+export const newIdempotencyKey = () =>
+  window.crypto?.randomUUID
+    ? window.crypto.randomUUID()
+    : `${Date.now().toString(36)}-${Math.random().toString(36).slice(2)}`;
+
+export const idempotencyHeaders = (key) => ({ headers: { 'Idempotency-Key': key } });
@@ -1,9 +1,7 @@
 package com.parking.controller;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -20,12 +18,16 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.parking.model.Booking;
-import com.parking.model.Booking.BookingStatus;
+import com.parking.dto.UserSummary;
 import com.parking.model.User;
-import com.parking.service.BookingService;
+import com.parking.security.VerifiedTokenCache;
+import com.parking.service.DashboardStatsService;
+import com.parking.service.IdempotencyService;
+import com.parking.service.NdjsonExportService;
 import com.parking.service.ParkingSlotService;
+import com.parking.service.SlotAvailabilityFeed;
 import com.parking.service.UserService;
 
 import jakarta.validation.Valid;
@@ -40,7 +42,19 @@ public class AdminController {
     private UserService userService;
     
     @Autowired
-    private BookingService bookingService;
+    private DashboardStatsService dashboardStatsService;
+    
+    @Autowired
+    private NdjsonExportService ndjsonExportService;
+    
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private SlotAvailabilityFeed slotAvailabilityFeed;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
     
     @Autowired
     private ParkingSlotService parkingSlotService;
@@ -49,15 +63,22 @@ public class AdminController {
     private PasswordEncoder encoder;
     
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
+    public ResponseEntity<List<UserSummary>> getAllUsers() {
+        List<UserSummary> users = userService.getAllUsers();
         return ResponseEntity.ok(users);
     }
     
+    @GetMapping(value = "/users", produces = NdjsonExportService.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return ResponseEntity.ok()
+                .contentType(NdjsonExportService.APPLICATION_NDJSON)
+                .body(ndjsonExportService.export(userService::streamAllUsers, UserSummary::of));
+    }
+    
     @GetMapping("/users/{id}")
     public ResponseEntity<?> getUserById(@PathVariable UUID id) {
         return userService.getUserById(id)
-                .map(user -> ResponseEntity.ok(user))
+                .map(user -> ResponseEntity.ok(UserSummary.of(user)))
                 .orElse(ResponseEntity.notFound().build());
     }
     
@@ -82,14 +103,14 @@ public class AdminController {
         user.setPassword(encoder.encode(user.getPassword()));
         
         User savedUser = userService.createUser(user);
-        return ResponseEntity.ok(savedUser);
+        return ResponseEntity.ok(UserSummary.of(savedUser));
     }
     
     @PutMapping("/users/{id}")
     public ResponseEntity<?> updateUser(@PathVariable UUID id, @Valid @RequestBody User userDetails) {
         try {
             User updatedUser = userService.updateUser(id, userDetails);
-            return ResponseEntity.ok(updatedUser);
+            return ResponseEntity.ok(UserSummary.of(updatedUser));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -125,49 +146,32 @@ public class AdminController {
         user.setPassword(encoder.encode(user.getPassword()));
         
         User savedUser = userService.createUser(user);
-        return ResponseEntity.ok(savedUser);
+        return ResponseEntity.ok(UserSummary.of(savedUser));
     }
     
     @GetMapping("/dashboard")
     public ResponseEntity<?> getDashboardStats() {
-        try {
-            Map<String, Object> stats = new HashMap<>();
-            
-            // Get user statistics
-            List<User> users = userService.getAllUsers();
-            stats.put("totalUsers", users.size());
-            
-            // Get parking slot statistics
-            stats.put("totalSlots", parkingSlotService.getAllParkingSlots().size());
-            
-            // Get booking statistics
-            List<Booking> allBookings = bookingService.getAllBookings();
-            stats.put("totalBookings", allBookings.size());
-            
-            // Calculate booking status counts
-            long activeBookings = allBookings.stream()
-                    .filter(b -> b.getStatus() == BookingStatus.ACTIVE)
-                    .count();
-            
-            long completedBookings = allBookings.stream()
-                    .filter(b -> b.getStatus() == BookingStatus.COMPLETED)
-                    .count();
-            
-            long cancelledBookings = allBookings.stream()
-                    .filter(b -> b.getStatus() == BookingStatus.CANCELLED)
-                    .count();
-            
-            // Get bookings with penalties
-            List<Booking> penaltyBookings = bookingService.getBookingsWithPenalty();
-            
-            stats.put("activeBookings", activeBookings);
-            stats.put("completedBookings", completedBookings);
-            stats.put("cancelledBookings", cancelledBookings);
-            stats.put("bookingsWithPenalty", penaltyBookings.size());
-            
-            return ResponseEntity.ok(stats);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Error fetching dashboard data: " + e.getMessage());
-        }
+        // Counters are maintained incrementally, so this never scans users, slots or bookings
+        return ResponseEntity.ok(dashboardStatsService.getDashboardStats());
+    }
+    
+    @GetMapping("/token-cache")
+    public ResponseEntity<?> getTokenCacheStats() {
+        return ResponseEntity.ok(verifiedTokenCache.getStats());
+    }
+    
+    @GetMapping("/slot-stream")
+    public ResponseEntity<?> getSlotStreamStats() {
+        return ResponseEntity.ok(slotAvailabilityFeed.getStats());
+    }
+    
+    @GetMapping("/idempotency")
+    public ResponseEntity<?> getIdempotencyStats() {
+        return ResponseEntity.ok(idempotencyService.getStats());
+    }
+    
+    @GetMapping("/slot-reads")
+    public ResponseEntity<?> getSlotReadStats() {
+        return ResponseEntity.ok(parkingSlotService.getSlotReadStats());
     }
-}
\ No newline at end of file
+}
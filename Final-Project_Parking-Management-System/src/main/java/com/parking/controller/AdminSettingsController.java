@@ -1,13 +1,16 @@
 package com.parking.controller;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -15,8 +18,10 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.parking.model.GlobalSettings;
 import com.parking.model.ParkingSlot;
+import com.parking.model.PricingRule;
 import com.parking.service.GlobalSettingsService;
 import com.parking.service.ParkingSlotService;
+import com.parking.service.PricingService;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -30,6 +35,9 @@ public class AdminSettingsController {
     @Autowired
     private ParkingSlotService parkingSlotService;
    
+    @Autowired
+    private PricingService pricingService;
+   
     @GetMapping("/global")
     public ResponseEntity<GlobalSettings> getGlobalSettings() {
         GlobalSettings settings = globalSettingsService.getGlobalSettings();
@@ -54,4 +62,37 @@ public class AdminSettingsController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+   
+    @GetMapping("/pricing-rules")
+    public ResponseEntity<List<PricingRule>> getPricingRules() {
+        return ResponseEntity.ok(pricingService.getRules());
+    }
+   
+    @PostMapping("/pricing-rules")
+    public ResponseEntity<?> createPricingRule(@RequestBody PricingRule rule) {
+        try {
+            return ResponseEntity.ok(pricingService.createRule(rule));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+   
+    @PutMapping("/pricing-rules/{id}")
+    public ResponseEntity<?> updatePricingRule(@PathVariable("id") UUID id, @RequestBody PricingRule rule) {
+        try {
+            return ResponseEntity.ok(pricingService.updateRule(id, rule));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+   
+    @DeleteMapping("/pricing-rules/{id}")
+    public ResponseEntity<?> deletePricingRule(@PathVariable("id") UUID id) {
+        try {
+            pricingService.deleteRule(id);
+            return ResponseEntity.ok().body("Pricing rule deleted successfully");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -25,6 +25,7 @@ import com.parking.model.User;
 import com.parking.repository.UserRepository;
 import com.parking.security.JwtUtils;
 import com.parking.security.UserDetailsImpl;
+import com.parking.service.DashboardStatsService;
 
 import jakarta.validation.Valid;
 
@@ -45,6 +46,9 @@ public class AuthController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
     // ------------------- SignIn -------------------
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody AuthRequest loginRequest) {
@@ -128,6 +132,7 @@ public class AuthController {
 
         user.setRoles(roles);
         userRepository.save(user); // Works with PostgreSQL + JPA
+        dashboardStatsService.userCreated();
 
         return ResponseEntity.ok("User registered successfully!");
     }
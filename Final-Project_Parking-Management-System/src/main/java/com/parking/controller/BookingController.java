@@ -1,6 +1,7 @@
 package com.parking.controller;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,20 +14,37 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.parking.dto.BookingPage;
+import com.parking.dto.PenaltyPage;
 import com.parking.model.Booking;
+import com.parking.model.Booking.BookingStatus;
 import com.parking.service.BookingService;
+import com.parking.service.BookingStateException;
+import com.parking.service.IdempotencyService;
+import com.parking.service.NdjsonExportService;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/bookings")
 public class BookingController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private NdjsonExportService ndjsonExportService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<Booking>> getAllBookings() {
@@ -34,11 +52,36 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
     
+    @GetMapping(produces = NdjsonExportService.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllBookings() {
+        return ResponseEntity.ok()
+                .contentType(NdjsonExportService.APPLICATION_NDJSON)
+                .body(ndjsonExportService.export(bookingService::streamAllBookings));
+    }
+    
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<Booking>> getBookingsByUserId(@PathVariable("userId") UUID userId) {
-        List<Booking> bookings = bookingService.getBookingsByUserId(userId);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<?> getBookingsByUserId(
+            @PathVariable("userId") UUID userId,
+            @RequestParam(name = "status", required = false) BookingStatus status,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("Error: size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        try {
+            BookingPage bookings = bookingService.getBookingsByUserId(userId, status, cursor, size);
+            return ResponseEntity.ok(bookings);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/user/{userId}/counts")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<BookingStatus, Long>> countBookingsByUserId(@PathVariable("userId") UUID userId) {
+        return ResponseEntity.ok(bookingService.countBookingsByUserId(userId));
     }
     
     @GetMapping("/active/user/{userId}")
@@ -58,35 +101,48 @@ public class BookingController {
     
     @PostMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<Booking> createBooking(@RequestBody Booking booking) {
-        Booking createdBooking = bookingService.createBooking(booking);
-        return ResponseEntity.ok(createdBooking);
+    public ResponseEntity<?> createBooking(
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody Booking booking) {
+        // Retries with the same key get the first response back without claiming the slot again
+        String request = "POST /api/bookings " + booking.getUserId() + " " + booking.getSlotId() + " "
+                + booking.getStartTime() + " " + booking.getEndTime();
+        return idempotencyService.execute(idempotencyKey, request, () -> {
+            Booking createdBooking = bookingService.createBooking(booking);
+            return ResponseEntity.ok(createdBooking);
+        });
     }
     
     @PutMapping("/complete/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<?> completeBooking(@PathVariable("id") UUID id) {
-        try {
-            Booking completedBooking = bookingService.completeBooking(id);
-            return ResponseEntity.ok(completedBooking);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Failed to complete booking. Please try again.");
-        }
+    public ResponseEntity<?> completeBooking(
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @PathVariable("id") UUID id) {
+        return idempotencyService.execute(idempotencyKey, "PUT /api/bookings/complete/" + id, () -> {
+            // Only state errors are final answers; other failures propagate, so a retry runs the request again
+            try {
+                Booking completedBooking = bookingService.completeBooking(id);
+                return ResponseEntity.ok(completedBooking);
+            } catch (BookingStateException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
     }
     
     @PutMapping("/cancel/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<?> cancelBooking(@PathVariable("id") UUID id) {
-        try {
-            Booking cancelledBooking = bookingService.cancelBooking(id);
-            return ResponseEntity.ok(cancelledBooking);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Failed to cancel booking. Please try again.");
-        }
+    public ResponseEntity<?> cancelBooking(
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @PathVariable("id") UUID id) {
+        return idempotencyService.execute(idempotencyKey, "PUT /api/bookings/cancel/" + id, () -> {
+            // Only state errors are final answers; other failures propagate, so a retry runs the request again
+            try {
+                Booking cancelledBooking = bookingService.cancelBooking(id);
+                return ResponseEntity.ok(cancelledBooking);
+            } catch (BookingStateException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
     }
     
     @DeleteMapping("/{id}")
@@ -98,8 +154,13 @@ public class BookingController {
     
     @GetMapping("/penalties")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Booking>> getBookingsWithPenalty() {
-        List<Booking> bookings = bookingService.getBookingsWithPenalty();
+    public ResponseEntity<?> getBookingsWithPenalty(
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "50") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("Error: page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        PenaltyPage bookings = bookingService.getBookingsWithPenalty(page, size);
         return ResponseEntity.ok(bookings);
     }
 }
\ No newline at end of file
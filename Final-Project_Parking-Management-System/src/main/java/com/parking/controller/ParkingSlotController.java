@@ -1,11 +1,19 @@
 package com.parking.controller;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,11 +21,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.parking.dto.SlotBatchResponse;
 import com.parking.model.ParkingSlot;
+import com.parking.service.NdjsonExportService;
 import com.parking.service.ParkingSlotService;
+import com.parking.service.SlotAvailabilityFeed;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -27,22 +42,73 @@ public class ParkingSlotController {
     @Autowired
     private ParkingSlotService parkingSlotService;
 
+    @Autowired
+    private NdjsonExportService ndjsonExportService;
+
+    @Autowired
+    private SlotAvailabilityFeed slotAvailabilityFeed;
+
+    @Autowired
+    private ContentNegotiationManager contentNegotiationManager;
+
+    // Browsers may keep slot responses but must revalidate them with the ETag before reuse. Each format
+    // gets its own tag, and caches are told to keep one entry per Accept header.
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    // The formats slot responses are written in, in the order their converters are registered
+    private static final Map<MediaType, String> FORMATS = new LinkedHashMap<>();
+
+    static {
+        FORMATS.put(MediaType.APPLICATION_JSON, "json");
+        FORMATS.put(MediaType.APPLICATION_CBOR, "cbor");
+        FORMATS.put(MediaType.valueOf("application/x-jackson-smile"), "smile");
+    }
+
     @GetMapping
-    public ResponseEntity<List<ParkingSlot>> getAllParkingSlots() {
+    public ResponseEntity<List<ParkingSlot>> getAllParkingSlots(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            NativeWebRequest request) {
+        String eTag = parkingSlotService.getSlotsETag(formatOf(request));
+        if (matches(ifNoneMatch, eTag)) return notModified(eTag);
         List<ParkingSlot> parkingSlots = parkingSlotService.getAllParkingSlots();
-        return ResponseEntity.ok(parkingSlots);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(parkingSlots);
+    }
+    
+    @GetMapping(produces = NdjsonExportService.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllParkingSlots() {
+        return ResponseEntity.ok()
+                .contentType(NdjsonExportService.APPLICATION_NDJSON)
+                .body(ndjsonExportService.export(parkingSlotService::streamAllParkingSlots));
     }
     
     @GetMapping("/available")
-    public ResponseEntity<List<ParkingSlot>> getAvailableParkingSlots() {
+    public ResponseEntity<List<ParkingSlot>> getAvailableParkingSlots(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            NativeWebRequest request) {
+        String eTag = parkingSlotService.getSlotsETag(formatOf(request));
+        if (matches(ifNoneMatch, eTag)) return notModified(eTag);
         List<ParkingSlot> parkingSlots = parkingSlotService.getAvailableParkingSlots();
-        return ResponseEntity.ok(parkingSlots);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(parkingSlots);
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSlotAvailability() {
+        try {
+            return ResponseEntity.ok(slotAvailabilityFeed.subscribe());
+        } catch (RuntimeException e) {
+            // Subscriber limit reached; an EventSource retries on its own
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ParkingSlot> getParkingSlotById(@PathVariable("id") UUID id) {
+    public ResponseEntity<ParkingSlot> getParkingSlotById(@PathVariable("id") UUID id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            NativeWebRequest request) {
+        String eTag = parkingSlotService.getSlotsETag(formatOf(request));
+        if (matches(ifNoneMatch, eTag)) return notModified(eTag);
         return parkingSlotService.getParkingSlotById(id)
-                .map(ResponseEntity::ok)
+                .map(parkingSlot -> ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(parkingSlot))
                 .orElse(ResponseEntity.notFound().build());
     }
     
@@ -53,6 +119,17 @@ public class ParkingSlotController {
         return ResponseEntity.ok(createdSlot);
     }
     
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> createParkingSlots(@RequestBody List<ParkingSlot> parkingSlots) {
+        try {
+            SlotBatchResponse response = parkingSlotService.createParkingSlots(parkingSlots);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ParkingSlot> updateParkingSlot(
@@ -68,4 +145,34 @@ public class ParkingSlotController {
         parkingSlotService.deleteParkingSlot(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+    
+    // The format content negotiation will write: the first accepted type any format matches, taking the
+    // formats in converter order, so a wildcard gets JSON
+    private String formatOf(NativeWebRequest request) {
+        try {
+            for (MediaType accepted : contentNegotiationManager.resolveMediaTypes(request)) {
+                for (Map.Entry<MediaType, String> format : FORMATS.entrySet()) {
+                    if (accepted.isCompatibleWith(format.getKey())) return format.getValue();
+                }
+            }
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            // An unreadable Accept header; negotiation rejects the request itself
+        }
+        return "json";
+    }
+    
+    // If-None-Match holds "*" or a list of tags, compared weakly
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(eTag)) return true;
+        }
+        return false;
+    }
+    
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).build();
+    }
+}
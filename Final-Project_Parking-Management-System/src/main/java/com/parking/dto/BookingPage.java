@@ -0,0 +1,39 @@
+package com.parking.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import com.parking.model.Booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// One page of a user's bookings, newest first; nextCursor fetches the following page and is null on the last one
+@Data
+@AllArgsConstructor
+public class BookingPage {
+    private List<Booking> bookings;
+    private String nextCursor;
+
+    // Opaque cursor holding the (createdAt, id) of the last booking on a page
+    public static String cursorOf(Booking booking) {
+        String key = booking.getCreatedAt() + "," + booking.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public record Cursor(LocalDateTime createdAt, UUID id) {
+        public static Cursor decode(String cursor) {
+            try {
+                String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = key.indexOf(',');
+                return new Cursor(LocalDateTime.parse(key.substring(0, separator)),
+                        UUID.fromString(key.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Error: invalid cursor");
+            }
+        }
+    }
+}
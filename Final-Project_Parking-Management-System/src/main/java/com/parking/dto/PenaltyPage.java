@@ -0,0 +1,18 @@
+package com.parking.dto;
+
+import java.util.List;
+
+import com.parking.model.Booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// One page of the bookings with a penalty, most recently updated first; hasNext tells whether page + 1 holds more
+@Data
+@AllArgsConstructor
+public class PenaltyPage {
+    private List<Booking> bookings;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
@@ -0,0 +1,25 @@
+package com.parking.dto;
+
+import java.util.UUID;
+
+import com.parking.model.ParkingSlot;
+import com.parking.model.ParkingSlot.SlotStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Public view of a slot for the availability stream; who booked it is left out
+@Data
+@AllArgsConstructor
+public class SlotAvailability {
+    private UUID id;
+    private String slotNumber;
+    private SlotStatus status;
+    private double hourlyRate;
+    private String slotClass;
+
+    public static SlotAvailability of(ParkingSlot parkingSlot) {
+        return new SlotAvailability(parkingSlot.getId(), parkingSlot.getSlotNumber(), parkingSlot.getStatus(),
+                parkingSlot.getHourlyRate(), parkingSlot.getSlotClass());
+    }
+}
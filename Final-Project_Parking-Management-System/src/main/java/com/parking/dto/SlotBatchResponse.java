@@ -0,0 +1,25 @@
+package com.parking.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.parking.model.ParkingSlot;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+public class SlotBatchResponse {
+    private int requested;
+    private List<ParkingSlot> created = new ArrayList<>();
+    private List<ItemError> errors = new ArrayList<>();
+
+    // A rejected item, identified by its position in the request
+    @Data
+    @AllArgsConstructor
+    public static class ItemError {
+        private int index;
+        private String slotNumber;
+        private String message;
+    }
+}
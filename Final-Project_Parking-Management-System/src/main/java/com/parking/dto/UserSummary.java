@@ -0,0 +1,28 @@
+package com.parking.dto;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+import com.parking.model.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// What the admin user endpoints return for a user; the password hash stays on the server
+@Data
+@AllArgsConstructor
+public class UserSummary {
+    private UUID id;
+    private String username;
+    private String email;
+    private Set<String> roles;
+    private boolean active;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static UserSummary of(User user) {
+        return new UserSummary(user.getId(), user.getUsername(), user.getEmail(), user.getRoles(), user.isActive(),
+                user.getCreatedAt(), user.getUpdatedAt());
+    }
+}
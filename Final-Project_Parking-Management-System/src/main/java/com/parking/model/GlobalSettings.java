@@ -24,4 +24,9 @@ public class GlobalSettings {
 
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Bumped on every update so instances can tell whether their cached copy is stale. Only ever
+    // incremented in place (GlobalSettingsRepository.incrementVersion), never written from an entity.
+    @Column(nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long version = 0;
 }
@@ -41,6 +41,10 @@ public class ParkingSlot {
     @Column(name = "hourly_rate", nullable = false)
     private double hourlyRate = 0.0;
 
+    // Optional class (e.g. COMPACT, EV) that pricing rules can target
+    @Column(name = "slot_class")
+    private String slotClass;
+
     public enum SlotStatus {
         AVAILABLE,
         OCCUPIED
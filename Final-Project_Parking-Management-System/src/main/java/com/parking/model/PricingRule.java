@@ -0,0 +1,67 @@
+package com.parking.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// One pricing adjustment. Every billed hour (of a booking, or of an overstay for penalties) is priced
+// as hourlyRate * rateMultiplier + hourlySurcharge by the first matching rule in priority order;
+// hours no rule matches are billed at the slot's plain hourly rate.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "pricing_rules")
+public class PricingRule {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rule_type", nullable = false)
+    private RuleType type = RuleType.BOOKING;
+
+    // Lower values are checked first
+    @Column(nullable = false)
+    private int priority = 0;
+
+    // Only slots of this class; null matches every slot
+    @Column(name = "slot_class")
+    private String slotClass;
+
+    // Hours of the day [startHour, endHour) the rule applies to, wrapping past midnight; null for all day
+    @Column(name = "start_hour")
+    private Integer startHour;
+
+    @Column(name = "end_hour")
+    private Integer endHour;
+
+    // Tier of billed hours [minHours, maxHours) counted from the start; maxHours null for no upper bound
+    @Column(name = "min_hours", nullable = false)
+    private int minHours = 0;
+
+    @Column(name = "max_hours")
+    private Integer maxHours;
+
+    @Column(name = "rate_multiplier", nullable = false)
+    private double rateMultiplier = 1.0;
+
+    @Column(name = "hourly_surcharge", nullable = false)
+    private double hourlySurcharge = 0.0;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public enum RuleType {
+        BOOKING,
+        PENALTY
+    }
+}
@@ -1,13 +1,27 @@
 package com.parking.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.parking.model.Booking;
 import com.parking.model.Booking.BookingStatus;
+import com.parking.model.ParkingSlot.SlotStatus;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, UUID> {
@@ -15,4 +29,57 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
     List<Booking> findBySlotId(UUID slotId);
     List<Booking> findByStatus(BookingStatus status);
     List<Booking> findByUserIdAndStatus(UUID userId, BookingStatus status);
+    long countByStatus(BookingStatus status);
+    long countByPenaltyTrue();
+    Slice<Booking> findByPenaltyTrue(Pageable pageable);
+
+    // Keyset pages of a user's bookings, newest first. The createdAt <= bound lets the index range
+    // start at the cursor; the OR only breaks ties between bookings created at the same instant.
+    List<Booking> findByUserIdOrderByCreatedAtDescIdDesc(UUID userId, Limit limit);
+    List<Booking> findByUserIdAndStatusOrderByCreatedAtDescIdDesc(UUID userId, BookingStatus status, Limit limit);
+
+    @Query("SELECT b FROM Booking b WHERE b.userId = :userId AND b.createdAt <= :createdAt "
+            + "AND (b.createdAt < :createdAt OR b.id < :id) ORDER BY b.createdAt DESC, b.id DESC")
+    List<Booking> findByUserIdBefore(@Param("userId") UUID userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id, Limit limit);
+
+    @Query("SELECT b FROM Booking b WHERE b.userId = :userId AND b.status = :status AND b.createdAt <= :createdAt "
+            + "AND (b.createdAt < :createdAt OR b.id < :id) ORDER BY b.createdAt DESC, b.id DESC")
+    List<Booking> findByUserIdAndStatusBefore(@Param("userId") UUID userId, @Param("status") BookingStatus status,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Limit limit);
+
+    @Query("SELECT b.status, COUNT(b) FROM Booking b WHERE b.userId = :userId GROUP BY b.status")
+    List<Object[]> countByUserIdGroupByStatus(@Param("userId") UUID userId);
+
+    // (id, penalty) of every booking in the status, to check the replayed booking journal against
+    @Query("SELECT b.id, b.penalty FROM Booking b WHERE b.status = :status")
+    List<Object[]> findIdAndPenaltyByStatus(@Param("status") BookingStatus status);
+
+    // Cursor over the whole table for streaming exports; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b FROM Booking b")
+    Stream<Booking> streamAll();
+
+    // Whether an active booking of the slot overlaps [startTime, endTime)
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.slotId = :slotId AND b.status = :active "
+            + "AND b.startTime < :endTime AND b.endTime > :startTime")
+    boolean existsOverlapping(@Param("slotId") UUID slotId, @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime, @Param("active") BookingStatus active);
+
+    // Active bookings whose time has come but whose slot is still marked available
+    @Query("SELECT b FROM Booking b, ParkingSlot s WHERE s.id = b.slotId AND s.status = :available "
+            + "AND b.status = :active AND b.startTime <= :now AND b.endTime > :now")
+    List<Booking> findDueForActivation(@Param("now") LocalDateTime now, @Param("active") BookingStatus active,
+            @Param("available") SlotStatus available);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.id IN :ids AND b.status = :status")
+    List<UUID> findIdsByStatus(@Param("ids") Collection<UUID> ids, @Param("status") BookingStatus status);
+
+    // Flags overdue bookings that share the same penalty in one statement; bookings no longer active are skipped
+    @Modifying
+    @Query("UPDATE Booking b SET b.penalty = true, b.penaltyAmount = :penaltyAmount, "
+            + "b.totalAmount = b.bookingAmount + :penaltyAmount, b.updatedAt = :now "
+            + "WHERE b.id IN :ids AND b.status = :active")
+    int applyOverduePenalty(@Param("ids") Collection<UUID> ids, @Param("penaltyAmount") double penaltyAmount,
+            @Param("now") LocalDateTime now, @Param("active") BookingStatus active);
 }
@@ -1,8 +1,12 @@
 package com.parking.repository;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.parking.model.GlobalSettings;
@@ -11,4 +15,12 @@ import com.parking.model.GlobalSettings;
 public interface GlobalSettingsRepository extends JpaRepository<GlobalSettings, UUID> {
     
     GlobalSettings findFirstByOrderByIdAsc();
-}
\ No newline at end of file
+
+    @Query("SELECT g.version FROM GlobalSettings g WHERE g.id = :id")
+    Long findVersionById(@Param("id") UUID id);
+
+    // Increments in the row itself, so concurrent bumps from any instance are all counted
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE GlobalSettings g SET g.version = g.version + 1, g.updatedAt = :updatedAt WHERE g.id = :id")
+    int incrementVersion(@Param("id") UUID id, @Param("updatedAt") LocalDateTime updatedAt);
+}
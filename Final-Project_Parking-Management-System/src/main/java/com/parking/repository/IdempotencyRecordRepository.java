@@ -0,0 +1,51 @@
+package com.parking.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.parking.model.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Claims the key for a new request; returns 0 if another request already holds it
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO idempotency_keys (id, request_hash, created_at) VALUES (:id, :requestHash, :now) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int claim(@Param("id") String id, @Param("requestHash") String requestHash, @Param("now") LocalDateTime now);
+
+    // Takes over a key whose request never finished (e.g. its instance stopped) once the lease has run
+    // out, or whose stored response has expired but not been purged yet
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.requestHash = :requestHash, r.createdAt = :now, r.statusCode = null, "
+            + "r.contentType = null, r.responseBody = null WHERE r.id = :id "
+            + "AND ((r.statusCode IS NULL AND r.createdAt < :leaseExpiredBefore) OR r.createdAt < :expiredBefore)")
+    int takeOver(@Param("id") String id, @Param("requestHash") String requestHash, @Param("now") LocalDateTime now,
+            @Param("leaseExpiredBefore") LocalDateTime leaseExpiredBefore,
+            @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.contentType = :contentType, "
+            + "r.responseBody = :responseBody WHERE r.id = :id")
+    int complete(@Param("id") String id, @Param("statusCode") int statusCode,
+            @Param("contentType") String contentType, @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.statusCode IS NULL")
+    int release(@Param("id") String id);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,16 +1,60 @@
 package com.parking.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.parking.model.ParkingSlot;
 import com.parking.model.ParkingSlot.SlotStatus;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ParkingSlotRepository extends JpaRepository<ParkingSlot, UUID> {
     List<ParkingSlot> findByStatus(SlotStatus status);
     Boolean existsBySlotNumber(String slotNumber);
+
+    @Query("SELECT s.slotNumber FROM ParkingSlot s WHERE s.slotNumber IN :slotNumbers")
+    List<String> findExistingSlotNumbers(@Param("slotNumbers") Collection<String> slotNumbers);
+
+    // Cursor over the whole table for streaming exports; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM ParkingSlot s")
+    Stream<ParkingSlot> streamAll();
+
+    // Locks the slot row until the transaction ends, so bookings of one slot are checked one at a time
+    // on every instance
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ParkingSlot s WHERE s.id = :id")
+    Optional<ParkingSlot> findByIdForUpdate(@Param("id") UUID id);
+
+    // Claims the slot only if it is still available; returns the number of rows updated (0 or 1)
+    @Modifying
+    @Query("UPDATE ParkingSlot s SET s.status = :occupied, s.bookedBy = :userId, s.startTime = :startTime, "
+            + "s.endTime = :endTime, s.updatedAt = :now WHERE s.id = :id AND s.status = :available")
+    int claimSlot(@Param("id") UUID id, @Param("userId") UUID userId,
+            @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime,
+            @Param("now") LocalDateTime now,
+            @Param("available") SlotStatus available, @Param("occupied") SlotStatus occupied);
+
+    // Releases the slot only if it is still held by the given booking
+    @Modifying
+    @Query("UPDATE ParkingSlot s SET s.status = :available, s.bookedBy = null, s.startTime = null, "
+            + "s.endTime = null, s.updatedAt = :now WHERE s.id = :id AND s.bookedBy = :userId AND s.startTime = :startTime")
+    int releaseSlot(@Param("id") UUID id, @Param("userId") UUID userId,
+            @Param("startTime") LocalDateTime startTime, @Param("now") LocalDateTime now,
+            @Param("available") SlotStatus available);
 }
@@ -0,0 +1,14 @@
+package com.parking.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.parking.model.PricingRule;
+
+@Repository
+public interface PricingRuleRepository extends JpaRepository<PricingRule, UUID> {
+    List<PricingRule> findAllByOrderByPriorityAscCreatedAtAsc();
+}
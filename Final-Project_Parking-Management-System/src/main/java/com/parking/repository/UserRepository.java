@@ -1,17 +1,37 @@
 package com.parking.repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.parking.model.User;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+    boolean existsByUsernameAndActiveTrue(String username);
+
+    // Users with their roles joined in, so listing them is one query instead of one more per user
+    @EntityGraph(attributePaths = "roles")
+    @Query("SELECT u FROM User u")
+    List<User> findAllWithRoles();
+
+    // Cursor over the whole table (roles joined in) for streaming exports; must be consumed inside a
+    // transaction. Ordered by id so the role rows of a user arrive together.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles ORDER BY u.id")
+    Stream<User> streamAll();
 }
@@ -3,13 +3,14 @@ package com.parking.security;
 import java.io.IOException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,20 +26,27 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    // When enabled every request also checks that the user still exists and is active
+    @Value("${app.jwt.check-user-active:false}")
+    private boolean checkUserActive;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            UserDetailsImpl userDetails = jwt != null ? authenticate(jwt) : null;
+            if (userDetails != null) {
+                if (!checkUserActive || userDetailsService.isActive(userDetails.getUsername())) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
@@ -47,6 +55,17 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Repeat tokens are served from the cache; new ones are verified once and cached until they expire
+    private UserDetailsImpl authenticate(String jwt) {
+        UserDetailsImpl userDetails = verifiedTokenCache.get(jwt);
+        if (userDetails != null) return userDetails;
+
+        Claims claims = jwtUtils.parseJwtClaims(jwt);
+        if (claims == null) return null;
+        userDetails = jwtUtils.getUserDetailsFromClaims(claims);
+        return verifiedTokenCache.put(jwt, claims, userDetails) ? userDetails : null;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -56,4 +75,4 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
         return null;
     }
-}
\ No newline at end of file
+}
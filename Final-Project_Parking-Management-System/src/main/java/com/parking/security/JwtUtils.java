@@ -1,21 +1,30 @@
 package com.parking.security;
 
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 import javax.crypto.SecretKey;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.SignatureException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Map;
@@ -29,13 +38,20 @@ public class JwtUtils {
     
     private SecretKey jwtSecret;
     
+    // Parsers are immutable and thread-safe, so one is built up front instead of per token
+    private JwtParser jwtParser;
+    
     @Value("${app.jwt.expiration}")
     private int jwtExpirationMs;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     // Initialize the JWT secret key after properties are set
     public void init() {
         // Create a secure key using the recommended approach for HS512
         this.jwtSecret = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(jwtSecret).build();
     }
     
     // This method is called by Spring after all properties are set
@@ -46,41 +62,68 @@ public class JwtUtils {
 
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
 
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .addClaims(Map.of("roles", userPrincipal.getAuthorities()))
+                .addClaims(Map.of("id", userPrincipal.getId().toString(), "roles", roles))
                 .signWith(jwtSecret, SignatureAlgorithm.HS512)
                 .compact();
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(jwtSecret)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseJwtClaims(authToken) != null;
+    }
+
+    // Verifies the signature and expiry once and returns the claims, or null if the token is invalid
+    public Claims parseJwtClaims(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(jwtSecret).build().parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (SignatureException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
+            validationFailed("signature");
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
+            validationFailed("malformed");
         } catch (ExpiredJwtException e) {
             log.error("JWT token is expired: {}", e.getMessage());
+            validationFailed("expired");
         } catch (UnsupportedJwtException e) {
             log.error("JWT token is unsupported: {}", e.getMessage());
+            validationFailed("unsupported");
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
+            validationFailed("empty");
         }
 
-        return false;
+        return null;
+    }
+
+    private void validationFailed(String reason) {
+        meterRegistry.counter("parking.jwt.validation.failures", "reason", reason).increment();
+    }
+
+    // Builds the principal from the claims embedded by generateJwtToken, without a user lookup
+    public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .collect(Collectors.toList());
+        String id = claims.get("id", String.class);
+
+        return new UserDetailsImpl(
+                id == null ? null : UUID.fromString(id),
+                claims.getSubject(),
+                null,
+                null,
+                authorities);
     }
-}
\ No newline at end of file
+}
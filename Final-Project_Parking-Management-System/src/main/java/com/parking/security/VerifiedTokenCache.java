@@ -0,0 +1,121 @@
+package com.parking.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+
+// Bounded LRU cache of bearer tokens whose signature has already been verified, keyed by a
+// SHA-256 digest of the token so raw tokens are never held in memory. Entries live until the
+// token's exp time. Revoking a user drops their entries and rejects any token issued to them
+// up to that moment, so a deleted or changed user has to sign in again.
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    @Value("${app.jwt.token-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.jwt.expiration}")
+    private long jwtExpirationMs;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() <= maxSize) return false;
+            evictions.incrementAndGet();
+            return true;
+        }
+    };
+
+    // Username -> revocation time in epoch seconds; tokens issued at or before it are rejected
+    private final Map<String, Long> revokedAt = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong revocations = new AtomicLong();
+
+    private record Entry(UserDetailsImpl principal, long expiresAtMillis) {
+    }
+
+    // Returns the cached principal for the token, or null if it has to be verified
+    public UserDetailsImpl get(String token) {
+        String key = digest(token);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAtMillis() > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return entry.principal();
+            }
+            if (entry != null) entries.remove(key);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    // Caches a freshly verified token; returns false if the token was issued before its user was revoked
+    public boolean put(String token, Claims claims, UserDetailsImpl principal) {
+        String key = digest(token);
+        synchronized (entries) {
+            if (isRevoked(claims)) return false;
+            if (maxSize > 0 && claims.getExpiration() != null) {
+                entries.put(key, new Entry(principal, claims.getExpiration().getTime()));
+            }
+            return true;
+        }
+    }
+
+    public void revokeUser(String username) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> username.equals(entry.principal().getUsername()));
+            // Any token issued before the expiration window has expired on its own
+            revokedAt.values().removeIf(revokedSeconds -> revokedSeconds * 1000 + jwtExpirationMs < now);
+            revokedAt.put(username, now / 1000);
+        }
+        revocations.incrementAndGet();
+        log.debug("Revoked cached tokens for user {}", username);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("revocations", revocations.get());
+        return stats;
+    }
+
+    private boolean isRevoked(Claims claims) {
+        Long revokedSeconds = revokedAt.get(claims.getSubject());
+        if (revokedSeconds == null) return false;
+        Date issuedAt = claims.getIssuedAt();
+        // iat has second precision, so a token from the same second as the revocation is rejected too
+        return issuedAt == null || issuedAt.getTime() / 1000 <= revokedSeconds;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.parking.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+// Hierarchical hashed timing wheel holding the next due time of every active booking.
+// Level 0 has one bucket per second; each higher level covers the whole range of the level
+// below in each bucket, so four levels of 256 buckets reach far beyond any booking. Scheduling
+// and cancelling are O(1) (a bucket is a doubly linked list); entries move down a level at most
+// once per level as their time approaches, and a sweep only touches the buckets that are due.
+@Component
+public class BookingExpiryWheel {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int BITS = 8;
+    private static final int SIZE = 1 << BITS;
+    private static final int MASK = SIZE - 1;
+    private static final int LEVELS = 4;
+
+    // One due booking, with everything needed to price its penalty without reading the database
+    public static final class Expiry {
+        private final UUID bookingId;
+        private final UUID slotId;
+        private final LocalDateTime endTime;
+        private final double bookingAmount;
+        private boolean penalty;
+        private long dueTick;
+        private Expiry prev;
+        private Expiry next;
+
+        private Expiry(UUID bookingId, UUID slotId, LocalDateTime endTime, double bookingAmount, boolean penalty) {
+            this.bookingId = bookingId;
+            this.slotId = slotId;
+            this.endTime = endTime;
+            this.bookingAmount = bookingAmount;
+            this.penalty = penalty;
+        }
+
+        public UUID getBookingId() {
+            return bookingId;
+        }
+
+        public UUID getSlotId() {
+            return slotId;
+        }
+
+        public LocalDateTime getEndTime() {
+            return endTime;
+        }
+
+        public double getBookingAmount() {
+            return bookingAmount;
+        }
+
+        public boolean isPenalty() {
+            return penalty;
+        }
+
+        public void setPenalty(boolean penalty) {
+            this.penalty = penalty;
+        }
+    }
+
+    private final Expiry[][] buckets = new Expiry[LEVELS][SIZE];
+    // Entries that were already due when scheduled; handed out by the next advance
+    private final Expiry overdue = newBucket();
+    private final Map<UUID, Expiry> expiries = new HashMap<>();
+    private long currentTick = toTick(LocalDateTime.now());
+
+    public BookingExpiryWheel() {
+        for (Expiry[] level : buckets) {
+            for (int i = 0; i < SIZE; i++) {
+                level[i] = newBucket();
+            }
+        }
+    }
+
+    // Schedules the booking to fall due at its end time, replacing any earlier entry
+    public synchronized void schedule(UUID bookingId, UUID slotId, LocalDateTime endTime, double bookingAmount,
+            boolean penalty) {
+        cancel(bookingId);
+        Expiry expiry = new Expiry(bookingId, slotId, endTime, bookingAmount, penalty);
+        expiries.put(bookingId, expiry);
+        insert(expiry, toTick(endTime));
+    }
+
+    // Puts a booking returned by advance() back on the wheel for its next due time,
+    // unless it was cancelled or scheduled again in the meantime
+    public synchronized void reschedule(Expiry expiry, LocalDateTime dueAt) {
+        if (expiries.get(expiry.bookingId) != expiry || expiry.next != null) return;
+        insert(expiry, toTick(dueAt));
+    }
+
+    // Forgets a booking returned by advance() that needs no further sweeps
+    public synchronized void release(Expiry expiry) {
+        expiries.remove(expiry.bookingId, expiry);
+    }
+
+    public synchronized void cancel(UUID bookingId) {
+        Expiry expiry = expiries.remove(bookingId);
+        if (expiry != null) unlink(expiry);
+    }
+
+    // Moves the wheel up to now and returns the bookings that fell due. They stay known to the wheel
+    // (so a cancel still takes effect) until they are rescheduled or released.
+    public synchronized List<Expiry> advance(LocalDateTime now) {
+        long nowTick = toTick(now);
+        List<Expiry> due = new ArrayList<>();
+        while (currentTick < nowTick) {
+            currentTick++;
+            int index = (int) (currentTick & MASK);
+            // Each time a level wraps, the next bucket of the level above is spread over the levels below
+            for (int level = 1; level < LEVELS && index == 0; level++) {
+                index = (int) ((currentTick >>> (BITS * level)) & MASK);
+                cascade(buckets[level][index]);
+            }
+            drain(buckets[0][(int) (currentTick & MASK)], due);
+        }
+        drain(overdue, due);
+        return due;
+    }
+
+    public synchronized void clear() {
+        for (Expiry expiry : new ArrayList<>(expiries.values())) {
+            unlink(expiry);
+        }
+        expiries.clear();
+    }
+
+    public synchronized int size() {
+        return expiries.size();
+    }
+
+    private void insert(Expiry expiry, long dueTick) {
+        expiry.dueTick = dueTick;
+        long delta = dueTick - currentTick;
+        if (delta <= 0) {
+            link(overdue, expiry);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        int index = (int) ((dueTick >>> (BITS * level)) & MASK);
+        link(buckets[level][index], expiry);
+    }
+
+    private void cascade(Expiry head) {
+        Expiry expiry = head.next;
+        head.prev = head;
+        head.next = head;
+        while (expiry != head) {
+            Expiry next = expiry.next;
+            insert(expiry, expiry.dueTick);
+            expiry = next;
+        }
+    }
+
+    private void drain(Expiry head, List<Expiry> due) {
+        Expiry expiry = head.next;
+        head.prev = head;
+        head.next = head;
+        while (expiry != head) {
+            Expiry next = expiry.next;
+            expiry.prev = null;
+            expiry.next = null;
+            due.add(expiry);
+            expiry = next;
+        }
+    }
+
+    // Sentinel heads keep linking and unlinking free of branches
+    private static Expiry newBucket() {
+        Expiry head = new Expiry(null, null, null, 0, false);
+        head.prev = head;
+        head.next = head;
+        return head;
+    }
+
+    private static void link(Expiry head, Expiry expiry) {
+        expiry.prev = head.prev;
+        expiry.next = head;
+        head.prev.next = expiry;
+        head.prev = expiry;
+    }
+
+    private static void unlink(Expiry expiry) {
+        // Entries handed out by advance() are no longer linked
+        if (expiry.next == null) return;
+        expiry.prev.next = expiry.next;
+        expiry.next.prev = expiry.prev;
+        expiry.prev = null;
+        expiry.next = null;
+    }
+
+    private static long toTick(LocalDateTime time) {
+        long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.floorDiv(millis + TICK_MILLIS - 1, TICK_MILLIS);
+    }
+}
@@ -0,0 +1,493 @@
+package com.parking.service;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.parking.model.Booking;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Append-only journal of booking lifecycle events in fixed-size, checksummed records written
+// through memory-mapped segment files. Appends are a memory copy; a background flusher forces
+// the pages to disk, so many appends share one sync (group commit). With app.journal.sync=true
+// an append waits until it is on disk. A checkpoint marks the last snapshot of active bookings,
+// from which the active set can be replayed at startup instead of reading every active booking from
+// the bookings table. Snapshots are rewritten periodically and the segments before them deleted.
+@Component
+@Slf4j
+public class BookingJournal {
+
+    public enum EventType {
+        CREATED, COMPLETED, CANCELLED, DELETED, PENALIZED, SNAPSHOT;
+
+        private static final EventType[] VALUES = values();
+    }
+
+    public record JournalEvent(EventType type, long timestampMillis, UUID bookingId, UUID slotId, UUID userId,
+            LocalDateTime startTime, LocalDateTime endTime, double amount) {
+    }
+
+    // What the in-memory indexes need to know about an active booking
+    public record ActiveBooking(UUID bookingId, UUID slotId, LocalDateTime startTime, LocalDateTime endTime,
+            double bookingAmount, boolean penalty) {
+
+        public static ActiveBooking of(Booking booking) {
+            return new ActiveBooking(booking.getId(), booking.getSlotId(), booking.getStartTime(),
+                    booking.getEndTime(), booking.getBookingAmount(), booking.isPenalty());
+        }
+    }
+
+    // type(1) pad(3) crc(4) timestamp(8) booking(16) slot(16) user(16) start(8) end(8) amount(8), with
+    // start and end in epoch microseconds (the precision of the timestamp columns)
+    static final int RECORD_SIZE = 88;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    // Written into the checkpoint; a checkpoint of another record format is ignored
+    private static final int FORMAT_VERSION = 2;
+
+    // A record offset within a segment
+    private record Position(int segment, int offset) {
+    }
+
+    @Value("${app.journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.journal.dir:data/journal}")
+    private String directory;
+
+    @Value("${app.journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${app.journal.flush-interval-ms:10}")
+    private long flushIntervalMs;
+
+    @Value("${app.journal.sync:false}")
+    private boolean sync;
+
+    private Path dir;
+    private int segmentSize;
+
+    // Locks rather than monitors, so a virtual thread waiting for a flush does not pin its carrier
+    // Guarded by appendLock
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final byte[] record = new byte[RECORD_SIZE];
+    private final ByteBuffer recordBuffer = ByteBuffer.wrap(record);
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private int position;
+    private long appendedSeq;
+    // Where the last snapshot ended; nothing to checkpoint while the journal still ends there
+    private Position snapshotEnd;
+
+    // Held while a snapshot is written and checkpointed, so checkpoints move forward only
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+
+    // Guarded by flushLock
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Condition flushRequested = flushLock.newCondition();
+    private final Condition flushed = flushLock.newCondition();
+    private long flushedSeq;
+    private int syncWaiters;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) return;
+        dir = Paths.get(directory);
+        segmentSize = Math.max(1, segmentSizeMb) * 1024 * 1024 / RECORD_SIZE * RECORD_SIZE;
+        Files.createDirectories(dir);
+        List<Integer> segments = segmentIndexes();
+        segmentIndex = segments.isEmpty() ? 1 : segments.get(segments.size() - 1);
+        segment = map(segmentIndex, FileChannel.MapMode.READ_WRITE);
+        // Continue after the last intact record; a torn tail from a crash is overwritten
+        position = 0;
+        while (position + RECORD_SIZE <= segment.capacity() && read(segment, position) != null) {
+            position += RECORD_SIZE;
+        }
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "booking-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Booking journal opened at {} (segment {}, offset {})", dir.toAbsolutePath(), segmentIndex, position);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!running) return;
+        running = false;
+        flushLock.lock();
+        try {
+            flushRequested.signal();
+            flushed.signalAll();
+        } finally {
+            flushLock.unlock();
+        }
+        flusher.join();
+        appendLock.lock();
+        try {
+            segment.force();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void append(EventType type, UUID bookingId, UUID slotId, UUID userId, LocalDateTime startTime,
+            LocalDateTime endTime, double amount) {
+        if (!enabled) return;
+        long seq;
+        appendLock.lock();
+        try {
+            seq = write(type, bookingId, slotId, userId, startTime, endTime, amount);
+        } finally {
+            appendLock.unlock();
+        }
+        if (sync) awaitFlush(seq);
+    }
+
+    public void append(EventType type, Booking booking, double amount) {
+        append(type, booking.getId(), booking.getSlotId(), booking.getUserId(), booking.getStartTime(),
+                booking.getEndTime(), amount);
+    }
+
+    // Writes the active bookings after a SNAPSHOT marker and moves the checkpoint there, so the next
+    // replay starts from this point
+    public void writeSnapshot(Collection<ActiveBooking> activeBookings) {
+        if (!enabled) return;
+        checkpointLock.lock();
+        try {
+            Position checkpoint;
+            long seq;
+            appendLock.lock();
+            try {
+                checkpoint = appendSnapshot(activeBookings);
+                seq = appendedSeq;
+            } finally {
+                appendLock.unlock();
+            }
+            commitCheckpoint(checkpoint, seq);
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    // Replaces the last snapshot and the events after it with a snapshot of the current active set,
+    // then deletes the segments before it, so startup replay and disk use stay bounded. The events are
+    // replayed without blocking appends up to where the journal ended, then the tail under the lock.
+    @Scheduled(fixedDelayString = "${app.journal.checkpoint-interval-ms:300000}",
+            initialDelayString = "${app.journal.checkpoint-interval-ms:300000}")
+    public void checkpoint() {
+        if (!running) return;
+        checkpointLock.lock();
+        try {
+            Position from = readCheckpoint();
+            if (from == null) return;
+            Position upTo;
+            appendLock.lock();
+            try {
+                upTo = new Position(segmentIndex, position);
+                if (upTo.equals(snapshotEnd)) return;
+            } finally {
+                appendLock.unlock();
+            }
+            Map<UUID, ActiveBooking> active = new LinkedHashMap<>();
+            replay(from, upTo, event -> apply(active, event));
+
+            Position checkpoint;
+            long seq;
+            appendLock.lock();
+            try {
+                replay(upTo, new Position(segmentIndex, position), event -> apply(active, event));
+                checkpoint = appendSnapshot(active.values());
+                seq = appendedSeq;
+            } finally {
+                appendLock.unlock();
+            }
+            commitCheckpoint(checkpoint, seq);
+            int deleted = deleteSegmentsBefore(checkpoint.segment());
+            log.debug("Booking journal checkpointed at segment {} offset {} ({} active bookings, {} segments deleted)",
+                    checkpoint.segment(), checkpoint.offset(), active.size(), deleted);
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    // Active bookings as of the last appended event, or empty if there is no snapshot to start from
+    public Optional<List<ActiveBooking>> recoverActiveBookings() {
+        if (!enabled) return Optional.empty();
+        Position from = readCheckpoint();
+        if (from == null) return Optional.empty();
+        Map<UUID, ActiveBooking> active = new LinkedHashMap<>();
+        replay(from, null, event -> apply(active, event));
+        return Optional.of(new ArrayList<>(active.values()));
+    }
+
+    private static void apply(Map<UUID, ActiveBooking> active, JournalEvent event) {
+        switch (event.type()) {
+            case CREATED -> active.put(event.bookingId(), new ActiveBooking(event.bookingId(), event.slotId(),
+                    event.startTime(), event.endTime(), event.amount(), false));
+            case PENALIZED -> active.computeIfPresent(event.bookingId(), (id, booking) -> new ActiveBooking(id,
+                    booking.slotId(), booking.startTime(), booking.endTime(), booking.bookingAmount(), true));
+            case COMPLETED, CANCELLED, DELETED -> active.remove(event.bookingId());
+            default -> {
+            }
+        }
+    }
+
+    // Feeds the events from one position up to another (or the end of the journal) to the consumer,
+    // in append order
+    private void replay(Position from, Position to, Consumer<JournalEvent> consumer) {
+        try {
+            for (int index : segmentIndexes()) {
+                if (index < from.segment() || (to != null && index > to.segment())) continue;
+                MappedByteBuffer buffer = map(index, FileChannel.MapMode.READ_ONLY);
+                int end = to != null && index == to.segment() ? to.offset() : buffer.capacity();
+                for (int offset = index == from.segment() ? from.offset() : 0; offset + RECORD_SIZE <= end;
+                        offset += RECORD_SIZE) {
+                    JournalEvent event = read(buffer, offset);
+                    if (event == null) break;
+                    consumer.accept(event);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to replay booking journal: " + e.getMessage(), e);
+        }
+    }
+
+    // Guarded by appendLock; returns the position of the SNAPSHOT marker
+    private Position appendSnapshot(Collection<ActiveBooking> activeBookings) {
+        write(EventType.SNAPSHOT, null, null, null, null, null, activeBookings.size());
+        Position marker = new Position(segmentIndex, position - RECORD_SIZE);
+        for (ActiveBooking booking : activeBookings) {
+            write(EventType.CREATED, booking.bookingId(), booking.slotId(), null, booking.startTime(),
+                    booking.endTime(), booking.bookingAmount());
+            if (booking.penalty()) {
+                write(EventType.PENALIZED, booking.bookingId(), booking.slotId(), null, booking.startTime(),
+                        booking.endTime(), 0.0);
+            }
+        }
+        snapshotEnd = new Position(segmentIndex, position);
+        return marker;
+    }
+
+    // Points the checkpoint at the snapshot once it is on disk
+    private void commitCheckpoint(Position checkpoint, long seq) {
+        awaitFlush(seq);
+        try {
+            Path temp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+            Files.writeString(temp, FORMAT_VERSION + " " + checkpoint.segment() + " " + checkpoint.offset(),
+                    StandardCharsets.US_ASCII);
+            Files.move(temp, dir.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write journal checkpoint: " + e.getMessage(), e);
+        }
+    }
+
+    // The last checkpoint, or null if there is none in the current format
+    private Position readCheckpoint() {
+        Path file = dir.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) return null;
+        try {
+            String[] checkpoint = Files.readString(file, StandardCharsets.US_ASCII).trim().split(" ");
+            if (checkpoint.length != 3 || Integer.parseInt(checkpoint[0]) != FORMAT_VERSION) return null;
+            return new Position(Integer.parseInt(checkpoint[1]), Integer.parseInt(checkpoint[2]));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read journal checkpoint: " + e.getMessage(), e);
+        }
+    }
+
+    private int deleteSegmentsBefore(int segment) {
+        int deleted = 0;
+        try {
+            for (int index : segmentIndexes()) {
+                if (index < segment && Files.deleteIfExists(dir.resolve(segmentName(index)))) deleted++;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete old journal segments: {}", e.getMessage());
+        }
+        return deleted;
+    }
+
+    private long write(EventType type, UUID bookingId, UUID slotId, UUID userId, LocalDateTime startTime,
+            LocalDateTime endTime, double amount) {
+        if (position + RECORD_SIZE > segment.capacity()) roll();
+        recordBuffer.clear();
+        recordBuffer.put((byte) (type.ordinal() + 1)).put((byte) 0).put((byte) 0).put((byte) 0).putInt(0)
+                .putLong(System.currentTimeMillis());
+        putUuid(bookingId);
+        putUuid(slotId);
+        putUuid(userId);
+        recordBuffer.putLong(toMicros(startTime))
+                .putLong(toMicros(endTime))
+                .putDouble(amount);
+        recordBuffer.putInt(4, checksum(record));
+        segment.put(position, record);
+        position += RECORD_SIZE;
+        return ++appendedSeq;
+    }
+
+    private void putUuid(UUID id) {
+        recordBuffer.putLong(id == null ? 0 : id.getMostSignificantBits())
+                .putLong(id == null ? 0 : id.getLeastSignificantBits());
+    }
+
+    private void roll() {
+        segment.force();
+        segmentIndex++;
+        try {
+            segment = map(segmentIndex, FileChannel.MapMode.READ_WRITE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open journal segment: " + e.getMessage(), e);
+        }
+        position = 0;
+    }
+
+    private JournalEvent read(ByteBuffer buffer, int offset) {
+        int type = buffer.get(offset);
+        if (type < 1 || type > EventType.VALUES.length) return null;
+        byte[] bytes = new byte[RECORD_SIZE];
+        buffer.get(offset, bytes);
+        if (ByteBuffer.wrap(bytes).getInt(4) != checksum(bytes)) return null;
+        ByteBuffer in = ByteBuffer.wrap(bytes, 8, RECORD_SIZE - 8);
+        long timestamp = in.getLong();
+        return new JournalEvent(EventType.VALUES[type - 1], timestamp, getUuid(in), getUuid(in), getUuid(in),
+                getTime(in), getTime(in), in.getDouble());
+    }
+
+    private static UUID getUuid(ByteBuffer in) {
+        long high = in.getLong();
+        long low = in.getLong();
+        return high == 0 && low == 0 ? null : new UUID(high, low);
+    }
+
+    private static LocalDateTime getTime(ByteBuffer in) {
+        long micros = in.getLong();
+        if (micros == NO_TIME) return null;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) return NO_TIME;
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1000;
+    }
+
+    // CRC32C of the record with its checksum field left out
+    private static int checksum(byte[] bytes) {
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes, 0, 4);
+        checksum.update(bytes, 8, RECORD_SIZE - 8);
+        return (int) checksum.getValue();
+    }
+
+    private void awaitFlush(long seq) {
+        flushLock.lock();
+        try {
+            syncWaiters++;
+            flushRequested.signal();
+            while (flushedSeq < seq && running) {
+                flushed.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            syncWaiters--;
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                flushLock.lock();
+                try {
+                    // Without waiting writers, pages are forced once per interval
+                    if (syncWaiters == 0) flushRequested.await(flushIntervalMs, TimeUnit.MILLISECONDS);
+                } finally {
+                    flushLock.unlock();
+                }
+                long target;
+                MappedByteBuffer current;
+                appendLock.lock();
+                try {
+                    target = appendedSeq;
+                    current = segment;
+                } finally {
+                    appendLock.unlock();
+                }
+                if (target == flushedSeq) continue;
+                current.force();
+                flushLock.lock();
+                try {
+                    flushedSeq = target;
+                    flushed.signalAll();
+                } finally {
+                    flushLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Booking journal flush failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private MappedByteBuffer map(int index, FileChannel.MapMode mode) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve(segmentName(index)).toFile(),
+                mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw")) {
+            if (mode != FileChannel.MapMode.READ_ONLY && file.length() < segmentSize) file.setLength(segmentSize);
+            return file.getChannel().map(mode, 0, Math.min(file.length(), Integer.MAX_VALUE));
+        }
+    }
+
+    private List<Integer> segmentIndexes() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith("journal-") && name.endsWith(".log"))
+                    .map(name -> Integer.parseInt(name.substring(8, name.length() - 4)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String segmentName(int index) {
+        return String.format("journal-%08d.log", index);
+    }
+}
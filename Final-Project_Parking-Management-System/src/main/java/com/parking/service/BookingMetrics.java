@@ -0,0 +1,43 @@
+package com.parking.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.parking.util.TransactionHooks;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Micrometer instruments for the booking funnel, scraped from /actuator/prometheus
+@Service
+public class BookingMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Times the surrounding transaction from now until it commits (success) or rolls back (failure),
+    // so the commit round trip is included; call it first thing in a @Transactional method
+    public void timeTransaction(String operation) {
+        long start = System.nanoTime();
+        TransactionHooks.afterCommit(() -> record(operation, "success", start));
+        TransactionHooks.afterRollback(() -> record(operation, "failure", start));
+    }
+
+    // A booking lost the slot to another one: reason is "reservation" (overlapping interval) or "occupied"
+    public void slotConflict(String reason) {
+        meterRegistry.counter("parking.slots.claim.conflicts", "reason", reason).increment();
+    }
+
+    // Bookings newly penalized, by "completion" (completed late) or "sweeper" (flagged while overdue)
+    public void penalties(String source, int count) {
+        if (count > 0) {
+            meterRegistry.counter("parking.bookings.penalties", "source", source).increment(count);
+        }
+    }
+
+    private void record(String operation, String outcome, long start) {
+        meterRegistry.timer("parking.bookings", "operation", operation, "outcome", outcome)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -1,19 +1,33 @@
 package com.parking.service;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.parking.dto.BookingPage;
+import com.parking.dto.BookingPage.Cursor;
+import com.parking.dto.PenaltyPage;
 import com.parking.model.Booking;
 import com.parking.model.Booking.BookingStatus;
 import com.parking.model.ParkingSlot;
+import com.parking.model.ParkingSlot.SlotStatus;
 import com.parking.repository.BookingRepository;
+import com.parking.service.BookingJournal.EventType;
+import com.parking.util.TransactionHooks;
 
 @Service
 public class BookingService {
@@ -27,12 +41,65 @@ public class BookingService {
     @Autowired
     private GlobalSettingsService globalSettingsService;
     
+    @Autowired
+    private SlotReservationIndex slotReservationIndex;
+    
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+    
+    @Autowired
+    private BookingExpiryWheel bookingExpiryWheel;
+
+    @Autowired
+    private BookingJournal bookingJournal;
+    
+    @Autowired
+    private PricingService pricingService;
+    
+    @Autowired
+    private BookingMetrics bookingMetrics;
+    
     public List<Booking> getAllBookings() {
         return bookingRepository.findAll();
     }
     
-    public List<Booking> getBookingsByUserId(UUID userId) {
-        return bookingRepository.findByUserId(userId);
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Stream<Booking> streamAllBookings() {
+        return bookingRepository.streamAll();
+    }
+    
+    // Newest first, one page at a time; status is optional and cursor is null for the first page
+    public BookingPage getBookingsByUserId(UUID userId, BookingStatus status, String cursor, int size) {
+        // One extra row tells whether another page follows
+        Limit limit = Limit.of(size + 1);
+        List<Booking> bookings;
+        if (cursor == null) {
+            bookings = status == null
+                    ? bookingRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, limit)
+                    : bookingRepository.findByUserIdAndStatusOrderByCreatedAtDescIdDesc(userId, status, limit);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            bookings = status == null
+                    ? bookingRepository.findByUserIdBefore(userId, after.createdAt(), after.id(), limit)
+                    : bookingRepository.findByUserIdAndStatusBefore(userId, status, after.createdAt(), after.id(), limit);
+        }
+        if (bookings.size() <= size) {
+            return new BookingPage(bookings, null);
+        }
+        List<Booking> page = bookings.subList(0, size);
+        return new BookingPage(page, BookingPage.cursorOf(page.get(size - 1)));
+    }
+    
+    // Number of the user's bookings in each status, from the (user_id, status) index
+    public Map<BookingStatus, Long> countBookingsByUserId(UUID userId) {
+        Map<BookingStatus, Long> counts = new EnumMap<>(BookingStatus.class);
+        for (BookingStatus status : BookingStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : bookingRepository.countByUserIdGroupByStatus(userId)) {
+            counts.put((BookingStatus) row[0], (Long) row[1]);
+        }
+        return counts;
     }
     
     public List<Booking> getActiveBookingsByUserId(UUID userId) {
@@ -43,94 +110,169 @@ public class BookingService {
         return bookingRepository.findById(id);
     }
     
+    @Transactional
     public Booking createBooking(Booking booking) {
+        bookingMetrics.timeTransaction("create");
         // Set timestamps
         LocalDateTime now = LocalDateTime.now();
         booking.setCreatedAt(now);
         booking.setUpdatedAt(now);
         booking.setStatus(BookingStatus.ACTIVE);
         
-        // Book the parking slot
+        if (!booking.getEndTime().isAfter(booking.getStartTime())) {
+            throw new RuntimeException("End time must be after start time");
+        }
+        
+        // The reservation index only knows this instance's bookings: a conflict it reports is confirmed
+        // against the table before rejecting, since the other booking may have ended on another instance
+        boolean reserved = slotReservationIndex.tryReserve(booking.getSlotId(), booking.getStartTime(),
+                booking.getEndTime());
+        if (reserved) {
+            TransactionHooks.afterRollback(() -> slotReservationIndex.release(
+                    booking.getSlotId(), booking.getStartTime(), booking.getEndTime()));
+        } else if (overlapsActiveBooking(booking)) {
+            rejectOverlap();
+        }
+        
+        // Book the parking slot; this locks the slot row until commit
         ParkingSlot parkingSlot = parkingSlotService.bookParkingSlot(
             booking.getSlotId(),
             booking.getUserId(),
             booking.getStartTime(),
             booking.getEndTime()
         );
+        // With the row locked, no other booking of the slot can commit in between, on any instance
+        if (overlapsActiveBooking(booking)) {
+            rejectOverlap();
+        }
         
         // Calculate booking amount
-        Duration duration = Duration.between(booking.getStartTime(), booking.getEndTime());
-        long hours = duration.toHours();
-        if (duration.toMinutesPart() > 0) hours++;
-        double bookingAmount = hours * parkingSlot.getHourlyRate();
+        double bookingAmount = pricingService.getPricing().bookingAmount(parkingSlot.getSlotClass(),
+                parkingSlot.getHourlyRate(), booking.getStartTime(), booking.getEndTime());
         booking.setBookingAmount(bookingAmount);
         booking.setTotalAmount(bookingAmount);
         
-        return bookingRepository.save(booking);
+        dashboardStatsService.bookingCreated();
+        Booking savedBooking = bookingRepository.save(booking);
+        TransactionHooks.afterCommit(() -> bookingExpiryWheel.schedule(savedBooking.getId(), savedBooking.getSlotId(),
+                savedBooking.getEndTime(), savedBooking.getBookingAmount(), false));
+        TransactionHooks.afterCommit(() -> bookingJournal.append(EventType.CREATED, savedBooking,
+                savedBooking.getBookingAmount()));
+        return savedBooking;
+    }
+    
+    // Active bookings past their start time take their slot; runs on every instance, the claim only succeeds once
+    @Scheduled(fixedDelayString = "${app.bookings.activation-interval-ms:1000}")
+    public void activateDueReservations() {
+        for (Booking booking : bookingRepository.findDueForActivation(LocalDateTime.now(), BookingStatus.ACTIVE,
+                SlotStatus.AVAILABLE)) {
+            parkingSlotService.activateReservation(booking.getSlotId(), booking.getUserId(), booking.getStartTime(),
+                    booking.getEndTime());
+        }
     }
     
+    private boolean overlapsActiveBooking(Booking booking) {
+        return bookingRepository.existsOverlapping(booking.getSlotId(), booking.getStartTime(), booking.getEndTime(),
+                BookingStatus.ACTIVE);
+    }
+    
+    private void rejectOverlap() {
+        bookingMetrics.slotConflict("reservation");
+        throw new RuntimeException("Parking slot is already booked for the requested time");
+    }
+    
+    @Transactional
     public Booking completeBooking(UUID id) {
+        bookingMetrics.timeTransaction("complete");
         Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
+                .orElseThrow(() -> new BookingStateException("Booking not found with id: " + id));
         
         if (booking.getStatus() != BookingStatus.ACTIVE) {
-            throw new RuntimeException("Booking is not active");
+            throw new BookingStateException("Booking is not active");
         }
         
         ParkingSlot parkingSlot = parkingSlotService.getParkingSlotById(booking.getSlotId())
-                .orElseThrow(() -> new RuntimeException("Parking slot not found with id: " + booking.getSlotId()));
+                .orElseThrow(() -> new BookingStateException("Parking slot not found with id: " + booking.getSlotId()));
         
         LocalDateTime now = LocalDateTime.now();
+        // The overdue sweeper may already have flagged the penalty, in which case it was counted then
+        boolean alreadyPenalized = booking.isPenalty();
         if (now.isAfter(booking.getEndTime())) {
             booking.setPenalty(true);
-            Duration exceeded = Duration.between(booking.getEndTime(), now);
-            long exceededHours = exceeded.toHours();
-            if (exceeded.toMinutesPart() > 0) exceededHours++;
-            
-            double penaltyAmount = globalSettingsService.getGlobalSettings().getDefaultPenaltyAmount() 
-                    + (exceededHours * parkingSlot.getHourlyRate());
+            double penaltyAmount = calculatePenaltyAmount(parkingSlot.getSlotClass(), parkingSlot.getHourlyRate(),
+                    booking.getEndTime(), now);
             booking.setPenaltyAmount(penaltyAmount);
             booking.setTotalAmount(booking.getBookingAmount() + penaltyAmount);
         } else {
             booking.setTotalAmount(booking.getBookingAmount());
         }
         
-        parkingSlotService.releaseParkingSlot(booking.getSlotId());
+        parkingSlotService.releaseParkingSlot(booking.getSlotId(), booking.getUserId(), booking.getStartTime());
+        TransactionHooks.afterCommit(() -> slotReservationIndex.release(
+                booking.getSlotId(), booking.getStartTime(), booking.getEndTime()));
+        TransactionHooks.afterCommit(() -> bookingExpiryWheel.cancel(booking.getId()));
+        TransactionHooks.afterCommit(() -> bookingJournal.append(EventType.COMPLETED, booking,
+                booking.getTotalAmount()));
         booking.setStatus(BookingStatus.COMPLETED);
         booking.setUpdatedAt(now);
+        dashboardStatsService.bookingCompleted(booking.isPenalty() && !alreadyPenalized);
+        if (booking.isPenalty() && !alreadyPenalized) {
+            TransactionHooks.afterCommit(() -> bookingMetrics.penalties("completion", 1));
+        }
         
         return bookingRepository.save(booking);
     }
     
+    @Transactional
     public Booking cancelBooking(UUID id) {
+        bookingMetrics.timeTransaction("cancel");
         Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
+                .orElseThrow(() -> new BookingStateException("Booking not found with id: " + id));
         
         if (booking.getStatus() != BookingStatus.ACTIVE) {
-            throw new RuntimeException("Booking is not active");
+            throw new BookingStateException("Booking is not active");
         }
         
-        parkingSlotService.releaseParkingSlot(booking.getSlotId());
+        parkingSlotService.releaseParkingSlot(booking.getSlotId(), booking.getUserId(), booking.getStartTime());
+        TransactionHooks.afterCommit(() -> slotReservationIndex.release(
+                booking.getSlotId(), booking.getStartTime(), booking.getEndTime()));
+        TransactionHooks.afterCommit(() -> bookingExpiryWheel.cancel(booking.getId()));
+        TransactionHooks.afterCommit(() -> bookingJournal.append(EventType.CANCELLED, booking, 0.0));
         booking.setStatus(BookingStatus.CANCELLED);
         booking.setUpdatedAt(LocalDateTime.now());
+        dashboardStatsService.bookingCancelled();
         
         return bookingRepository.save(booking);
     }
     
+    @Transactional
     public void deleteBooking(UUID id) {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
         
         if (booking.getStatus() == BookingStatus.ACTIVE) {
-            parkingSlotService.releaseParkingSlot(booking.getSlotId());
+            parkingSlotService.releaseParkingSlot(booking.getSlotId(), booking.getUserId(), booking.getStartTime());
+            TransactionHooks.afterCommit(() -> slotReservationIndex.release(
+                    booking.getSlotId(), booking.getStartTime(), booking.getEndTime()));
+            TransactionHooks.afterCommit(() -> bookingExpiryWheel.cancel(booking.getId()));
         }
         
         bookingRepository.delete(booking);
+        TransactionHooks.afterCommit(() -> bookingJournal.append(EventType.DELETED, booking, 0.0));
+        dashboardStatsService.bookingDeleted(booking.getStatus(), booking.isPenalty());
+    }
+    
+    // Default penalty plus every started hour past the end time, priced by the penalty rules
+    public double calculatePenaltyAmount(String slotClass, double hourlyRate, LocalDateTime endTime, LocalDateTime now) {
+        return pricingService.getPricing().penaltyAmount(slotClass, hourlyRate,
+                globalSettingsService.getSnapshot().defaultPenaltyAmount(), endTime, now);
     }
     
-    public List<Booking> getBookingsWithPenalty() {
-        return bookingRepository.findAll().stream()
-                .filter(Booking::isPenalty)
-                .collect(Collectors.toList());
+    // Most recently updated first, served by the partial index on penalty bookings. A slice reads one
+    // row past the page to answer hasNext instead of counting every penalty booking.
+    public PenaltyPage getBookingsWithPenalty(int page, int size) {
+        Slice<Booking> bookings = bookingRepository.findByPenaltyTrue(
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "updatedAt")));
+        return new PenaltyPage(bookings.getContent(), page, size, bookings.hasNext());
     }
 }
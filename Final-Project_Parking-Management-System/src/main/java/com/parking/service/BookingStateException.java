@@ -0,0 +1,10 @@
+package com.parking.service;
+
+// A booking change that cannot be made in the booking's current state (not found, no longer active,
+// its slot gone). Retrying it cannot succeed, unlike a failure while carrying it out.
+public class BookingStateException extends RuntimeException {
+
+    public BookingStateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,169 @@
+package com.parking.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.parking.model.PricingRule;
+import com.parking.model.PricingRule.RuleType;
+
+// Immutable evaluator compiled from the pricing rules. For every slot class, hour tier and hour of
+// the day the matching rule is resolved up front, and the per-hour multipliers and surcharges are
+// stored as prefix sums over a day. Pricing a stay then costs one table walk per tier, whatever
+// its length, and allocates nothing.
+public final class CompiledPricing {
+
+    private static final int HOURS_PER_DAY = 24;
+    private static final int STRIDE = HOURS_PER_DAY + 1;
+
+    private final long version;
+    // Slot class -> table index; index 0 holds the rules without a slot class (and unknown classes)
+    private final Map<String, Integer> classIndexes;
+    private final Table booking;
+    private final Table penalty;
+
+    private CompiledPricing(long version, Map<String, Integer> classIndexes, Table booking, Table penalty) {
+        this.version = version;
+        this.classIndexes = classIndexes;
+        this.booking = booking;
+        this.penalty = penalty;
+    }
+
+    // Rules must be given in evaluation order (priority first)
+    public static CompiledPricing compile(long version, List<PricingRule> rules) {
+        List<String> classes = new ArrayList<>();
+        classes.add(null);
+        Map<String, Integer> classIndexes = new HashMap<>();
+        for (PricingRule rule : rules) {
+            if (rule.getSlotClass() != null && !classIndexes.containsKey(rule.getSlotClass())) {
+                classIndexes.put(rule.getSlotClass(), classes.size());
+                classes.add(rule.getSlotClass());
+            }
+        }
+        return new CompiledPricing(version, Map.copyOf(classIndexes),
+                Table.compile(classes, rules, RuleType.BOOKING),
+                Table.compile(classes, rules, RuleType.PENALTY));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    // Every started hour from start to end, priced by the booking rules
+    public double bookingAmount(String slotClass, double hourlyRate, LocalDateTime startTime, LocalDateTime endTime) {
+        return booking.amount(classIndex(slotClass), hourlyRate, startTime.getHour(), billedHours(startTime, endTime));
+    }
+
+    // The base penalty plus every started hour past the end time, priced by the penalty rules
+    public double penaltyAmount(String slotClass, double hourlyRate, double basePenalty, LocalDateTime endTime,
+            LocalDateTime now) {
+        return basePenalty
+                + penalty.amount(classIndex(slotClass), hourlyRate, endTime.getHour(), billedHours(endTime, now));
+    }
+
+    // Whole hours, plus one for a started (minute-precision) hour
+    static long billedHours(LocalDateTime from, LocalDateTime to) {
+        long minutes = from.until(to, ChronoUnit.MINUTES);
+        if (minutes <= 0) return 0;
+        return minutes / 60 + (minutes % 60 > 0 ? 1 : 0);
+    }
+
+    private int classIndex(String slotClass) {
+        if (slotClass == null) return 0;
+        Integer index = classIndexes.get(slotClass);
+        return index == null ? 0 : index;
+    }
+
+    private static final class Table {
+        // Hour counts at which a new tier starts; the first is always 0 and the last tier is open ended
+        private final int[] tierStarts;
+        // Prefix sums over the hours of the day, STRIDE entries per (class, tier)
+        private final double[] multiplierSums;
+        private final double[] surchargeSums;
+
+        private Table(int[] tierStarts, double[] multiplierSums, double[] surchargeSums) {
+            this.tierStarts = tierStarts;
+            this.multiplierSums = multiplierSums;
+            this.surchargeSums = surchargeSums;
+        }
+
+        static Table compile(List<String> classes, List<PricingRule> allRules, RuleType type) {
+            List<PricingRule> rules = allRules.stream().filter(rule -> rule.getType() == type).toList();
+            TreeSet<Integer> boundaries = new TreeSet<>();
+            boundaries.add(0);
+            for (PricingRule rule : rules) {
+                boundaries.add(rule.getMinHours());
+                if (rule.getMaxHours() != null) boundaries.add(rule.getMaxHours());
+            }
+            int[] tierStarts = boundaries.stream().mapToInt(Integer::intValue).toArray();
+
+            int tiers = tierStarts.length;
+            double[] multiplierSums = new double[classes.size() * tiers * STRIDE];
+            double[] surchargeSums = new double[classes.size() * tiers * STRIDE];
+            for (int classIndex = 0; classIndex < classes.size(); classIndex++) {
+                for (int tier = 0; tier < tiers; tier++) {
+                    int base = (classIndex * tiers + tier) * STRIDE;
+                    for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+                        PricingRule rule = match(rules, classes.get(classIndex), tierStarts[tier], hour);
+                        multiplierSums[base + hour + 1] = multiplierSums[base + hour]
+                                + (rule == null ? 1.0 : rule.getRateMultiplier());
+                        surchargeSums[base + hour + 1] = surchargeSums[base + hour]
+                                + (rule == null ? 0.0 : rule.getHourlySurcharge());
+                    }
+                }
+            }
+            return new Table(tierStarts, multiplierSums, surchargeSums);
+        }
+
+        // Tier boundaries include every rule bound, so a rule covers a tier entirely or not at all
+        private static PricingRule match(List<PricingRule> rules, String slotClass, int tierStart, int hour) {
+            for (PricingRule rule : rules) {
+                if (rule.getSlotClass() != null && !rule.getSlotClass().equals(slotClass)) continue;
+                if (tierStart < rule.getMinHours()) continue;
+                if (rule.getMaxHours() != null && tierStart >= rule.getMaxHours()) continue;
+                if (!coversHour(rule, hour)) continue;
+                return rule;
+            }
+            return null;
+        }
+
+        private static boolean coversHour(PricingRule rule, int hour) {
+            if (rule.getStartHour() == null || rule.getEndHour() == null) return true;
+            int start = rule.getStartHour();
+            int end = rule.getEndHour();
+            if (start == end) return true;
+            return start < end ? hour >= start && hour < end : hour >= start || hour < end;
+        }
+
+        double amount(int classIndex, double hourlyRate, int startHour, long hours) {
+            double multiplier = 0;
+            double surcharge = 0;
+            int tiers = tierStarts.length;
+            for (int tier = 0; tier < tiers && tierStarts[tier] < hours; tier++) {
+                long from = tierStarts[tier];
+                long to = tier + 1 < tiers ? Math.min(tierStarts[tier + 1], hours) : hours;
+                int base = (classIndex * tiers + tier) * STRIDE;
+                int hour = (int) ((startHour + from) % HOURS_PER_DAY);
+                multiplier += sum(multiplierSums, base, hour, to - from);
+                surcharge += sum(surchargeSums, base, hour, to - from);
+            }
+            return hourlyRate * multiplier + surcharge;
+        }
+
+        // Sum of count consecutive hourly values starting at the given hour of the day
+        private static double sum(double[] prefixSums, int base, int hour, long count) {
+            long days = count / HOURS_PER_DAY;
+            int end = hour + (int) (count % HOURS_PER_DAY);
+            double total = days * prefixSums[base + HOURS_PER_DAY];
+            if (end <= HOURS_PER_DAY) {
+                return total + prefixSums[base + end] - prefixSums[base + hour];
+            }
+            return total + prefixSums[base + HOURS_PER_DAY] - prefixSums[base + hour]
+                    + prefixSums[base + end - HOURS_PER_DAY];
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.parking.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.parking.model.Booking.BookingStatus;
+import com.parking.repository.BookingRepository;
+import com.parking.repository.ParkingSlotRepository;
+import com.parking.repository.UserRepository;
+import com.parking.util.TransactionHooks;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Dashboard counters kept current by the services on every state transition and
+// periodically reconciled against the database to correct any drift.
+@Service
+@Slf4j
+public class DashboardStatsService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ParkingSlotRepository parkingSlotRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final AtomicLong totalSlots = new AtomicLong();
+    private final AtomicLong totalBookings = new AtomicLong();
+    private final AtomicLong activeBookings = new AtomicLong();
+    private final AtomicLong completedBookings = new AtomicLong();
+    private final AtomicLong cancelledBookings = new AtomicLong();
+    private final AtomicLong bookingsWithPenalty = new AtomicLong();
+
+    public Map<String, Object> getDashboardStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalUsers", totalUsers.get());
+        stats.put("totalSlots", totalSlots.get());
+        stats.put("totalBookings", totalBookings.get());
+        stats.put("activeBookings", activeBookings.get());
+        stats.put("completedBookings", completedBookings.get());
+        stats.put("cancelledBookings", cancelledBookings.get());
+        stats.put("bookingsWithPenalty", bookingsWithPenalty.get());
+        return stats;
+    }
+
+    // All transitions are applied after commit so rolled back changes are never counted
+
+    public void userCreated() {
+        TransactionHooks.afterCommit(totalUsers::incrementAndGet);
+    }
+
+    public void userDeleted() {
+        TransactionHooks.afterCommit(totalUsers::decrementAndGet);
+    }
+
+    public void slotCreated() {
+        TransactionHooks.afterCommit(totalSlots::incrementAndGet);
+    }
+
+    public void slotsCreated(int count) {
+        TransactionHooks.afterCommit(() -> totalSlots.addAndGet(count));
+    }
+
+    public void slotDeleted() {
+        TransactionHooks.afterCommit(totalSlots::decrementAndGet);
+    }
+
+    public void bookingCreated() {
+        TransactionHooks.afterCommit(() -> {
+            totalBookings.incrementAndGet();
+            activeBookings.incrementAndGet();
+        });
+    }
+
+    public void bookingCompleted(boolean penalty) {
+        TransactionHooks.afterCommit(() -> {
+            activeBookings.decrementAndGet();
+            completedBookings.incrementAndGet();
+            if (penalty) bookingsWithPenalty.incrementAndGet();
+        });
+    }
+
+    public void penaltiesFlagged(int count) {
+        TransactionHooks.afterCommit(() -> bookingsWithPenalty.addAndGet(count));
+    }
+
+    public void bookingCancelled() {
+        TransactionHooks.afterCommit(() -> {
+            activeBookings.decrementAndGet();
+            cancelledBookings.incrementAndGet();
+        });
+    }
+
+    public void bookingDeleted(BookingStatus status, boolean penalty) {
+        TransactionHooks.afterCommit(() -> {
+            totalBookings.decrementAndGet();
+            counterFor(status).decrementAndGet();
+            if (penalty) bookingsWithPenalty.decrementAndGet();
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        totalUsers.set(userRepository.count());
+        totalSlots.set(parkingSlotRepository.count());
+        totalBookings.set(bookingRepository.count());
+        activeBookings.set(bookingRepository.countByStatus(BookingStatus.ACTIVE));
+        completedBookings.set(bookingRepository.countByStatus(BookingStatus.COMPLETED));
+        cancelledBookings.set(bookingRepository.countByStatus(BookingStatus.CANCELLED));
+        bookingsWithPenalty.set(bookingRepository.countByPenaltyTrue());
+        log.debug("Dashboard stats reconciled: {}", getDashboardStats());
+    }
+
+    private AtomicLong counterFor(BookingStatus status) {
+        switch (status) {
+            case COMPLETED:
+                return completedBookings;
+            case CANCELLED:
+                return cancelledBookings;
+            default:
+                return activeBookings;
+        }
+    }
+}
@@ -2,14 +2,23 @@ package com.parking.service;
 
 import java.time.LocalDateTime;
 // import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.parking.model.GlobalSettings;
 import com.parking.repository.GlobalSettingsRepository;
+import com.parking.util.TransactionHooks;
+
+import lombok.extern.slf4j.Slf4j;
 
 @Service
+@Slf4j
 public class GlobalSettingsService {
 
     @Autowired
@@ -17,6 +26,18 @@ public class GlobalSettingsService {
     
     // private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
+    // Immutable copy of the settings row used by the rate and penalty paths
+    public record Snapshot(UUID id, long version, double defaultPenaltyAmount, double defaultHourlyRate,
+            LocalDateTime updatedAt) {
+        
+        static Snapshot of(GlobalSettings settings) {
+            return new Snapshot(settings.getId(), settings.getVersion(), settings.getDefaultPenaltyAmount(),
+                    settings.getDefaultHourlyRate(), settings.getUpdatedAt());
+        }
+    }
+    
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    
     public GlobalSettings getGlobalSettings() {
         GlobalSettings settings = globalSettingsRepository.findFirstByOrderByIdAsc();
         if (settings == null) {
@@ -27,11 +48,56 @@ public class GlobalSettingsService {
         return settings;
     }
     
+    // Served from memory; only the very first call (or a reload) reads the database
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot.get();
+        if (current != null) return current;
+        return reload();
+    }
+    
+    @Transactional
     public GlobalSettings updateGlobalSettings(GlobalSettings settingsDetails) {
         GlobalSettings settings = getGlobalSettings();
         settings.setDefaultPenaltyAmount(settingsDetails.getDefaultPenaltyAmount());
         settings.setDefaultHourlyRate(settingsDetails.getDefaultHourlyRate());
-        settings.setUpdatedAt(LocalDateTime.now());
-        return globalSettingsRepository.save(settings);
+        GlobalSettings savedSettings = globalSettingsRepository.save(settings);
+        incrementVersion(savedSettings);
+        TransactionHooks.afterCommit(() -> snapshot.set(Snapshot.of(savedSettings)));
+        return savedSettings;
+    }
+    
+    // Publishes a change to data derived from the settings (such as pricing rules) to every instance
+    @Transactional
+    public void bumpVersion() {
+        GlobalSettings settings = getGlobalSettings();
+        incrementVersion(settings);
+        TransactionHooks.afterCommit(() -> snapshot.set(Snapshot.of(settings)));
+    }
+    
+    // The update holds the row lock until commit, so the version read back is this bump's
+    private void incrementVersion(GlobalSettings settings) {
+        LocalDateTime now = LocalDateTime.now();
+        globalSettingsRepository.incrementVersion(settings.getId(), now);
+        settings.setUpdatedAt(now);
+        settings.setVersion(globalSettingsRepository.findVersionById(settings.getId()));
+    }
+    
+    // Picks up updates made through other instances by comparing the published version
+    @Scheduled(fixedDelayString = "${app.settings.refresh-interval-ms:30000}",
+            initialDelayString = "${app.settings.refresh-interval-ms:30000}")
+    public void refreshIfStale() {
+        Snapshot current = snapshot.get();
+        if (current == null) return;
+        Long version = globalSettingsRepository.findVersionById(current.id());
+        if (!Objects.equals(version, current.version())) {
+            log.info("Global settings version changed from {} to {}, reloading", current.version(), version);
+            reload();
+        }
+    }
+    
+    private Snapshot reload() {
+        Snapshot loaded = Snapshot.of(getGlobalSettings());
+        snapshot.set(loaded);
+        return loaded;
     }
 }
@@ -0,0 +1,253 @@
+package com.parking.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.model.IdempotencyRecord;
+import com.parking.repository.IdempotencyRecordRepository;
+import com.parking.util.TransactionHooks;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// Runs a request once per Idempotency-Key and replays its response to retries. Keys are scoped to the
+// signed-in user. The first request claims the key in the idempotency_keys table (so it holds across
+// instances) and stores its response there, in the transaction of the request itself; recent responses
+// are also kept in a bounded in-memory LRU, so most retries are answered without any query and the
+// rest with a single primary key lookup.
+// Server errors and exceptions release the key so the request can be retried for real.
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_STORED_BODY_LENGTH = 8000;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${app.idempotency.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.idempotency.lease-ms:30000}")
+    private long leaseMs;
+
+    private final Map<String, StoredResponse> responses = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+            if (size() <= maxSize) return false;
+            evictions.incrementAndGet();
+            return true;
+        }
+    };
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong databaseHits = new AtomicLong();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private record StoredResponse(String requestHash, int statusCode, String contentType, String body,
+            LocalDateTime createdAt) {
+    }
+
+    // Runs action unless the key was already used; request identifies what is being asked for (operation
+    // and the fields that matter), so reusing a key for something else is rejected instead of replayed
+    public ResponseEntity<?> execute(String key, String request, Supplier<ResponseEntity<?>> action) {
+        if (key == null) return action.get();
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body("Error: " + HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = digest(currentUsername() + "\n" + key);
+        String requestHash = digest(request);
+
+        StoredResponse stored = lookup(id);
+        if (stored == null && !claim(id, requestHash)) {
+            // Lost the claim: the key is either finished by now or still running elsewhere
+            stored = lookup(id);
+            if (stored == null) {
+                count(conflicts, "in-progress");
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body("Error: a request with this " + HEADER + " is still in progress");
+            }
+        }
+        if (stored != null) return replay(stored, requestHash);
+
+        ResponseEntity<?> response;
+        try {
+            // A successful response is stored by the same commit as the request's own writes, so a retry
+            // that takes the key over after a crash always finds it. Any other response rolls back.
+            response = new TransactionTemplate(transactionManager).execute(status -> {
+                ResponseEntity<?> result = action.get();
+                if (result.getStatusCode().is2xxSuccessful()) store(id, requestHash, result);
+                else status.setRollbackOnly();
+                return result;
+            });
+        } catch (RuntimeException e) {
+            idempotencyRecordRepository.release(id);
+            throw e;
+        }
+        count(executions, "executed");
+        if (response.getStatusCode().is5xxServerError()) {
+            idempotencyRecordRepository.release(id);
+        } else if (!response.getStatusCode().is2xxSuccessful()) {
+            // Nothing was written, so losing this one only means a retry gets the same answer again
+            store(id, requestHash, response);
+        }
+        return response;
+    }
+
+    // Drops stored responses past the TTL, from memory and from the table
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime before = LocalDateTime.now().minusHours(ttlHours);
+        synchronized (responses) {
+            responses.values().removeIf(response -> response.createdAt().isBefore(before));
+        }
+        int purged = idempotencyRecordRepository.deleteCreatedBefore(before);
+        if (purged > 0) log.debug("Purged {} expired idempotency keys", purged);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (responses) {
+            stats.put("size", responses.size());
+        }
+        stats.put("maxSize", maxSize);
+        stats.put("ttlHours", ttlHours);
+        stats.put("executions", executions.get());
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("databaseHits", databaseHits.get());
+        stats.put("conflicts", conflicts.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    private StoredResponse lookup(String id) {
+        LocalDateTime expiredBefore = LocalDateTime.now().minusHours(ttlHours);
+        synchronized (responses) {
+            StoredResponse stored = responses.get(id);
+            if (stored != null && stored.createdAt().isAfter(expiredBefore)) {
+                memoryHits.incrementAndGet();
+                return stored;
+            }
+        }
+        IdempotencyRecord record = idempotencyRecordRepository.findById(id).orElse(null);
+        if (record == null || record.getStatusCode() == null || record.getCreatedAt().isBefore(expiredBefore)) {
+            return null;
+        }
+        databaseHits.incrementAndGet();
+        StoredResponse stored = new StoredResponse(record.getRequestHash(), record.getStatusCode(),
+                record.getContentType(), record.getResponseBody(), record.getCreatedAt());
+        remember(id, stored);
+        return stored;
+    }
+
+    private boolean claim(String id, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        return idempotencyRecordRepository.claim(id, requestHash, now) == 1
+                || idempotencyRecordRepository.takeOver(id, requestHash, now, now.minus(Duration.ofMillis(leaseMs)),
+                        now.minusHours(ttlHours)) == 1;
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            count(conflicts, "mismatch");
+            return ResponseEntity.unprocessableEntity()
+                    .body("Error: this " + HEADER + " was already used for a different request");
+        }
+        count(null, "replayed");
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.statusCode()).header(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) builder.contentType(MediaType.parseMediaType(stored.contentType()));
+        return builder.body(stored.body());
+    }
+
+    private void store(String id, String requestHash, ResponseEntity<?> response) {
+        Object body = response.getBody();
+        String contentType = null;
+        String serialized = null;
+        if (body instanceof String text) {
+            contentType = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8";
+            serialized = text;
+        } else if (body != null) {
+            contentType = MediaType.APPLICATION_JSON_VALUE;
+            try {
+                serialized = objectMapper.writeValueAsString(body);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Could not store the response for an idempotent request", e);
+            }
+        }
+        int statusCode = response.getStatusCode().value();
+        StoredResponse stored = new StoredResponse(requestHash, statusCode, contentType, serialized, LocalDateTime.now());
+        TransactionHooks.afterCommit(() -> remember(id, stored));
+        if (serialized != null && serialized.length() > MAX_STORED_BODY_LENGTH) {
+            // Too large for the table: other instances replay the status only, but never run the request again
+            log.warn("Response to an idempotent request is {} characters; persisting its status only", serialized.length());
+            idempotencyRecordRepository.complete(id, statusCode, null, null);
+            return;
+        }
+        idempotencyRecordRepository.complete(id, statusCode, contentType, serialized);
+    }
+
+    private void remember(String id, StoredResponse stored) {
+        if (maxSize <= 0) return;
+        synchronized (responses) {
+            responses.put(id, stored);
+        }
+    }
+
+    private void count(AtomicLong counter, String outcome) {
+        if (counter != null) counter.incrementAndGet();
+        meterRegistry.counter("parking.idempotency.requests", "outcome", outcome).increment();
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    private static String digest(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+}
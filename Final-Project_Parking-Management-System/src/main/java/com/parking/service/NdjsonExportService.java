@@ -0,0 +1,81 @@
+package com.parking.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Writes query results as newline-delimited JSON while they are read from the database,
+// so an export needs constant memory whatever the size of the table.
+@Service
+public class NdjsonExportService {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // The query is opened inside a read-only transaction on the thread writing the response
+    public <T> StreamingResponseBody export(Supplier<Stream<T>> query) {
+        return export(query, Function.identity());
+    }
+
+    // Writes view(row) for every row, e.g. a DTO leaving out fields the client must not see
+    public <T> StreamingResponseBody export(Supplier<Stream<T>> query, Function<T, ?> view) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return outputStream -> {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            transactionTemplate.executeWithoutResult(status -> write(query, view, writer, outputStream));
+        };
+    }
+
+    private <T> void write(Supplier<Stream<T>> query, Function<T, ?> view, ObjectWriter writer,
+            OutputStream outputStream) {
+        try (Stream<T> rows = query.get();
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            long count = 0;
+            for (Iterator<T> iterator = rows.iterator(); iterator.hasNext();) {
+                T row = iterator.next();
+                writer.writeValue(generator, view.apply(row));
+                // Written rows are no longer needed by the persistence context
+                entityManager.detach(row);
+                // Flush the first row right away for a fast first byte, then in batches
+                if (++count == 1 || count % FLUSH_INTERVAL == 0) generator.flush();
+            }
+            if (count > 0) generator.writeRaw('\n');
+            generator.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to stream export: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.parking.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.parking.model.Booking.BookingStatus;
+import com.parking.model.ParkingSlot;
+import com.parking.repository.BookingRepository;
+import com.parking.repository.ParkingSlotRepository;
+import com.parking.service.BookingExpiryWheel.Expiry;
+import com.parking.service.BookingJournal.EventType;
+import com.parking.util.TransactionHooks;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Flags active bookings as soon as they run past their end time. Due bookings come off the
+// expiry wheel, are priced with the same rules as completeBooking and written in batches, one
+// update per distinct penalty amount.
+// An overstaying booking is put back on the wheel for the next time its penalty grows, so the
+// stored penalty keeps up until the booking is completed.
+@Service
+@Slf4j
+public class OverdueBookingSweeper {
+
+    private static final int UPDATE_BATCH_SIZE = 500;
+
+    @Autowired
+    private BookingExpiryWheel bookingExpiryWheel;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ParkingSlotRepository parkingSlotRepository;
+
+    @Autowired
+    private SlotStateStore slotStateStore;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private BookingJournal bookingJournal;
+
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
+    @Scheduled(fixedDelayString = "${app.bookings.overdue-sweep-interval-ms:1000}")
+    @Transactional
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Expiry> due = bookingExpiryWheel.advance(now);
+        if (due.isEmpty()) return;
+        // Anything not written back goes on the wheel again for the next sweep
+        TransactionHooks.afterRollback(() -> due.forEach(expiry -> bookingExpiryWheel.reschedule(expiry, now)));
+
+        int flagged = 0;
+        for (int from = 0; from < due.size(); from += UPDATE_BATCH_SIZE) {
+            List<Expiry> batch = due.subList(from, Math.min(from + UPDATE_BATCH_SIZE, due.size()));
+
+            // Bookings that share a penalty (same rate and overstay) are flagged by one statement
+            Map<Double, List<Expiry>> byPenalty = new HashMap<>();
+            for (Expiry expiry : batch) {
+                ParkingSlot parkingSlot = parkingSlot(expiry);
+                double penaltyAmount = bookingService.calculatePenaltyAmount(parkingSlot.getSlotClass(),
+                        parkingSlot.getHourlyRate(), expiry.getEndTime(), now);
+                byPenalty.computeIfAbsent(penaltyAmount, amount -> new ArrayList<>()).add(expiry);
+            }
+
+            for (Map.Entry<Double, List<Expiry>> group : byPenalty.entrySet()) {
+                List<Expiry> expiries = group.getValue();
+                List<UUID> ids = expiries.stream().map(Expiry::getBookingId).toList();
+                int updated = bookingRepository.applyOverduePenalty(ids, group.getKey(), now, BookingStatus.ACTIVE);
+                // Only when some were completed or cancelled elsewhere do we need to find out which
+                Set<UUID> active = updated == ids.size() ? null
+                        : new HashSet<>(bookingRepository.findIdsByStatus(ids, BookingStatus.ACTIVE));
+
+                for (Expiry expiry : expiries) {
+                    if (active != null && !active.contains(expiry.getBookingId())) {
+                        bookingExpiryWheel.release(expiry);
+                        continue;
+                    }
+                    if (!expiry.isPenalty()) {
+                        flagged++;
+                        TransactionHooks.afterCommit(() -> bookingJournal.append(EventType.PENALIZED,
+                                expiry.getBookingId(), expiry.getSlotId(), null, null, expiry.getEndTime(),
+                                group.getKey()));
+                    }
+                    expiry.setPenalty(true);
+                    TransactionHooks.afterCommit(() -> bookingExpiryWheel.reschedule(expiry, nextPenaltyChange(expiry, now)));
+                }
+            }
+        }
+        dashboardStatsService.penaltiesFlagged(flagged);
+        int penalized = flagged;
+        TransactionHooks.afterCommit(() -> bookingMetrics.penalties("sweeper", penalized));
+        log.debug("Overdue sweep priced {} bookings, {} newly penalized in {} ms", due.size(), flagged,
+                Duration.between(now, LocalDateTime.now()).toMillis());
+    }
+
+    // A slot deleted in the meantime is priced with no hourly rate
+    private ParkingSlot parkingSlot(Expiry expiry) {
+        return slotStateStore.snapshot(expiry.getSlotId())
+                .or(() -> parkingSlotRepository.findById(expiry.getSlotId()))
+                .orElseGet(ParkingSlot::new);
+    }
+
+    // Every started hour past the end time adds to the penalty, so it next changes one minute into the next hour
+    private static LocalDateTime nextPenaltyChange(Expiry expiry, LocalDateTime now) {
+        LocalDateTime firstChange = expiry.getEndTime().plusMinutes(1);
+        if (firstChange.isAfter(now)) return firstChange;
+        return firstChange.plusHours(Duration.between(firstChange, now).toHours() + 1);
+    }
+}
@@ -1,32 +1,147 @@
 package com.parking.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import com.parking.dto.SlotBatchResponse;
+import com.parking.dto.SlotBatchResponse.ItemError;
 import com.parking.model.ParkingSlot;
 import com.parking.model.ParkingSlot.SlotStatus;
 import com.parking.repository.ParkingSlotRepository;
+import com.parking.util.SingleFlight;
+import com.parking.util.TransactionHooks;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
+@Slf4j
 public class ParkingSlotService {
 
+    public static final int MAX_BATCH_SIZE = 10000;
+    
+    // Matches spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int INSERT_BATCH_SIZE = 500;
+    
+    // Keeps the IN list of the uniqueness check well below driver parameter limits
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
     @Autowired
     private ParkingSlotRepository parkingSlotRepository;
     
     @Autowired
     private GlobalSettingsService globalSettingsService;
     
+    @Autowired
+    private SlotReservationIndex slotReservationIndex;
+    
+    @Autowired
+    private SlotStateStore slotStateStore;
+    
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+    
+    @Autowired
+    private BookingMetrics bookingMetrics;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${app.slots.read-coalescing.enabled:true}")
+    private boolean readCoalescingEnabled;
+    
+    @Value("${app.slots.read-coalescing.max-staleness-ms:250}")
+    private long readMaxStalenessMs;
+    
+    // Concurrent slot list reads share one query; dropped after every committed slot write
+    private SingleFlight<List<ParkingSlot>> slotReads;
+    
+    // Served as the ETag of the slot reads. Bumped after every slot write committed here, and by
+    // reconcileSlotState once writes made through other instances show up in the table, so a remote
+    // write is revalidated within app.slots.reconcile-interval-ms. The epoch keeps tags from another
+    // instance or an earlier run from matching this one's. GET /{id} deliberately uses the same
+    // table-wide version rather than a per-slot validator: a write to any slot invalidates every
+    // cached slot, which costs a download but never serves a stale one.
+    private final String slotsEpoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong slotsVersion = new AtomicLong();
+    
+    @PostConstruct
+    void initSlotReads() {
+        slotReads = new SingleFlight<>(Duration.ofMillis(readMaxStalenessMs), meterRegistry);
+        Gauge.builder("parking.reads.coalescing.ratio", slotReads, SingleFlight::coalescingRatio)
+                .tag("reads", "parking_slots")
+                .description("Share of reads answered by another caller's query")
+                .register(meterRegistry);
+    }
+    
+    // The list is shared with concurrent callers and must not be modified
     public List<ParkingSlot> getAllParkingSlots() {
-        return parkingSlotRepository.findAll();
+        return coalesced("slots.all", () -> Collections.unmodifiableList(parkingSlotRepository.findAll()));
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Stream<ParkingSlot> streamAllParkingSlots() {
+        return parkingSlotRepository.streamAll();
     }
     
     public List<ParkingSlot> getAvailableParkingSlots() {
-        return parkingSlotRepository.findByStatus(SlotStatus.AVAILABLE);
+        // Served from memory once the slot state store has been loaded at startup
+        if (slotStateStore.isLoaded()) return slotStateStore.availableSlots();
+        return coalesced("slots.available",
+                () -> Collections.unmodifiableList(parkingSlotRepository.findByStatus(SlotStatus.AVAILABLE)));
+    }
+    
+    // Other instances write the same table: their writes reach the slot state store, and through it
+    // /available, the availability stream and the slot ETag, on this interval
+    @Scheduled(fixedDelayString = "${app.slots.reconcile-interval-ms:5000}",
+            initialDelayString = "${app.slots.reconcile-interval-ms:5000}")
+    public void reconcileSlotState() {
+        if (!slotStateStore.isLoaded()) return;
+        long modCount = slotStateStore.modCount();
+        int reconciled = slotStateStore.reconcile(modCount, parkingSlotRepository.findAll());
+        if (reconciled > 0) {
+            slotReads.invalidate();
+            slotsVersion.incrementAndGet();
+            log.debug("Slot state reconciled: {} slots changed", reconciled);
+        }
+    }
+    
+    public Map<String, Object> getSlotReadStats() {
+        Map<String, Object> stats = slotReads.getStats();
+        stats.put("version", slotsVersion.get());
+        return stats;
+    }
+    
+    // Read it before the slots it describes: a response may then be newer than its tag, never older.
+    // The format (json, cbor, smile) keeps the tag unique per representation.
+    public String getSlotsETag(String format) {
+        return "\"" + slotsEpoch + "-" + slotsVersion.get() + "-" + format + "\"";
     }
     
     public Optional<ParkingSlot> getParkingSlotById(UUID id) {
@@ -38,12 +153,79 @@ public class ParkingSlotService {
             throw new RuntimeException("Slot number already exists");
         }
         if (parkingSlot.getHourlyRate() == 0.0) {
-            parkingSlot.setHourlyRate(globalSettingsService.getGlobalSettings().getDefaultHourlyRate());
+            parkingSlot.setHourlyRate(globalSettingsService.getSnapshot().defaultHourlyRate());
         }
         LocalDateTime now = LocalDateTime.now();
         parkingSlot.setCreatedAt(now);
         parkingSlot.setUpdatedAt(now);
-        return parkingSlotRepository.save(parkingSlot);
+        ParkingSlot savedSlot = parkingSlotRepository.save(parkingSlot);
+        afterSlotsCommitted(() -> slotStateStore.put(savedSlot));
+        dashboardStatsService.slotCreated();
+        return savedSlot;
+    }
+    
+    // Provisions many slots in one transaction: slot numbers are checked with set-based queries,
+    // the default rate is resolved once and rows are inserted as JDBC batches. Invalid items are
+    // reported by index and skipped, the rest are created.
+    @Transactional
+    public SlotBatchResponse createParkingSlots(List<ParkingSlot> parkingSlots) {
+        if (parkingSlots.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("A batch may contain at most " + MAX_BATCH_SIZE + " slots");
+        }
+        SlotBatchResponse response = new SlotBatchResponse();
+        response.setRequested(parkingSlots.size());
+        
+        Set<String> existing = findExistingSlotNumbers(parkingSlots);
+        double defaultHourlyRate = globalSettingsService.getSnapshot().defaultHourlyRate();
+        LocalDateTime now = LocalDateTime.now();
+        
+        Set<String> seen = new HashSet<>();
+        List<ParkingSlot> accepted = new ArrayList<>();
+        for (int i = 0; i < parkingSlots.size(); i++) {
+            ParkingSlot parkingSlot = parkingSlots.get(i);
+            String slotNumber = parkingSlot == null ? null : parkingSlot.getSlotNumber();
+            String error = null;
+            if (!StringUtils.hasText(slotNumber)) error = "Slot number is required";
+            else if (existing.contains(slotNumber)) error = "Slot number already exists";
+            else if (!seen.add(slotNumber)) error = "Slot number is repeated in the batch";
+            else if (parkingSlot.getHourlyRate() < 0) error = "Hourly rate must not be negative";
+            if (error != null) {
+                response.getErrors().add(new ItemError(i, slotNumber, error));
+                continue;
+            }
+            
+            parkingSlot.setId(null);
+            if (parkingSlot.getHourlyRate() == 0.0) parkingSlot.setHourlyRate(defaultHourlyRate);
+            parkingSlot.setCreatedAt(now);
+            parkingSlot.setUpdatedAt(now);
+            accepted.add(parkingSlot);
+        }
+        
+        for (int from = 0; from < accepted.size(); from += INSERT_BATCH_SIZE) {
+            parkingSlotRepository.saveAll(accepted.subList(from, Math.min(from + INSERT_BATCH_SIZE, accepted.size())));
+            // Send the batch and keep the persistence context small
+            entityManager.flush();
+            entityManager.clear();
+        }
+        
+        afterSlotsCommitted(() -> accepted.forEach(slotStateStore::put));
+        dashboardStatsService.slotsCreated(accepted.size());
+        response.setCreated(accepted);
+        return response;
+    }
+    
+    private Set<String> findExistingSlotNumbers(List<ParkingSlot> parkingSlots) {
+        List<String> slotNumbers = parkingSlots.stream()
+                .filter(parkingSlot -> parkingSlot != null && StringUtils.hasText(parkingSlot.getSlotNumber()))
+                .map(ParkingSlot::getSlotNumber)
+                .distinct()
+                .toList();
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < slotNumbers.size(); from += LOOKUP_CHUNK_SIZE) {
+            existing.addAll(parkingSlotRepository.findExistingSlotNumbers(
+                    slotNumbers.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, slotNumbers.size()))));
+        }
+        return existing;
     }
     
     public ParkingSlot updateParkingSlot(UUID id, ParkingSlot parkingSlotDetails) {
@@ -51,40 +233,81 @@ public class ParkingSlotService {
                 .orElseThrow(() -> new RuntimeException("Parking slot not found with id: " + id));
         parkingSlot.setSlotNumber(parkingSlotDetails.getSlotNumber());
         parkingSlot.setStatus(parkingSlotDetails.getStatus());
+        // Clients that predate slot classes leave it out, which keeps the class the slot has
+        if (parkingSlotDetails.getSlotClass() != null) parkingSlot.setSlotClass(parkingSlotDetails.getSlotClass());
         if (parkingSlotDetails.getHourlyRate() > 0) parkingSlot.setHourlyRate(parkingSlotDetails.getHourlyRate());
         parkingSlot.setUpdatedAt(LocalDateTime.now());
-        return parkingSlotRepository.save(parkingSlot);
+        ParkingSlot savedSlot = parkingSlotRepository.save(parkingSlot);
+        afterSlotsCommitted(() -> slotStateStore.put(savedSlot));
+        return savedSlot;
     }
     
     public void deleteParkingSlot(UUID id) {
         ParkingSlot parkingSlot = parkingSlotRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Parking slot not found with id: " + id));
         parkingSlotRepository.delete(parkingSlot);
+        // A delete refused by the database (bookings still reference the slot) keeps its reservations
+        afterSlotsCommitted(() -> {
+            slotReservationIndex.removeSlot(id);
+            slotStateStore.remove(id);
+        });
+        dashboardStatsService.slotDeleted();
     }
     
+    @Transactional
     public ParkingSlot bookParkingSlot(UUID id, UUID userId, LocalDateTime startTime, LocalDateTime endTime) {
-        ParkingSlot parkingSlot = parkingSlotRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Parking slot not found with id: " + id));
-        if (parkingSlot.getStatus() == SlotStatus.OCCUPIED) 
+        LocalDateTime now = LocalDateTime.now();
+        // The slot row tracks current occupancy; a future reservation only takes the row lock, so the
+        // caller's overlap check runs alone, and is claimed by activateReservation when it starts
+        if (startTime.isAfter(now)) {
+            return parkingSlotRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new RuntimeException("Parking slot not found with id: " + id));
+        }
+        
+        // Claim the slot in a single conditional update so concurrent bookers cannot both win; the
+        // update also holds the row lock until commit
+        int claimed = parkingSlotRepository.claimSlot(id, userId, startTime, endTime, now,
+                SlotStatus.AVAILABLE, SlotStatus.OCCUPIED);
+        if (claimed == 0) {
+            if (!parkingSlotRepository.existsById(id))
+                throw new RuntimeException("Parking slot not found with id: " + id);
+            bookingMetrics.slotConflict("occupied");
             throw new RuntimeException("Parking slot is already occupied");
+        }
+        afterSlotsCommitted(() -> slotStateStore.markOccupied(id, userId, startTime, endTime, now));
         
+        // The claim was the only round trip when the slot is known to the store
+        ParkingSlot parkingSlot = slotStateStore.snapshot(id).or(() -> parkingSlotRepository.findById(id))
+                .orElseThrow(() -> new RuntimeException("Parking slot not found with id: " + id));
         parkingSlot.setStatus(SlotStatus.OCCUPIED);
         parkingSlot.setBookedBy(userId);
         parkingSlot.setStartTime(startTime);
         parkingSlot.setEndTime(endTime);
-        parkingSlot.setUpdatedAt(LocalDateTime.now());
-        return parkingSlotRepository.save(parkingSlot);
+        parkingSlot.setUpdatedAt(now);
+        return parkingSlot;
     }
     
-    public ParkingSlot releaseParkingSlot(UUID id) {
-        ParkingSlot parkingSlot = parkingSlotRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Parking slot not found with id: " + id));
-        parkingSlot.setStatus(SlotStatus.AVAILABLE);
-        parkingSlot.setBookedBy(null);
-        parkingSlot.setStartTime(null);
-        parkingSlot.setEndTime(null);
-        parkingSlot.setUpdatedAt(LocalDateTime.now());
-        return parkingSlotRepository.save(parkingSlot);
+    // Marks the slot occupied by a reservation whose start time has come, if nothing holds it any more
+    @Transactional
+    public boolean activateReservation(UUID id, UUID userId, LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime now = LocalDateTime.now();
+        if (parkingSlotRepository.claimSlot(id, userId, startTime, endTime, now,
+                SlotStatus.AVAILABLE, SlotStatus.OCCUPIED) == 0) {
+            return false;
+        }
+        afterSlotsCommitted(() -> slotStateStore.markOccupied(id, userId, startTime, endTime, now));
+        return true;
+    }
+    
+    // Releases the slot only if it is currently held by the booking of this user and start time
+    @Transactional
+    public boolean releaseParkingSlot(UUID id, UUID userId, LocalDateTime startTime) {
+        LocalDateTime now = LocalDateTime.now();
+        if (parkingSlotRepository.releaseSlot(id, userId, startTime, now, SlotStatus.AVAILABLE) == 0) {
+            return false;
+        }
+        afterSlotsCommitted(() -> slotStateStore.markAvailable(id, now));
+        return true;
     }
     
     public ParkingSlot updateParkingSlotRate(UUID id, double hourlyRate) {
@@ -92,6 +315,21 @@ public class ParkingSlotService {
                 .orElseThrow(() -> new RuntimeException("Parking slot not found with id: " + id));
         parkingSlot.setHourlyRate(hourlyRate);
         parkingSlot.setUpdatedAt(LocalDateTime.now());
-        return parkingSlotRepository.save(parkingSlot);
+        ParkingSlot savedSlot = parkingSlotRepository.save(parkingSlot);
+        afterSlotsCommitted(() -> slotStateStore.put(savedSlot));
+        return savedSlot;
+    }
+    
+    private List<ParkingSlot> coalesced(String key, Supplier<List<ParkingSlot>> query) {
+        return readCoalescingEnabled ? slotReads.get(key, query) : query.get();
+    }
+    
+    // Applies a slot write to the in-memory copies once it has committed, then moves the version on
+    private void afterSlotsCommitted(Runnable storeUpdate) {
+        TransactionHooks.afterCommit(() -> {
+            storeUpdate.run();
+            slotReads.invalidate();
+            slotsVersion.incrementAndGet();
+        });
     }
 }
@@ -0,0 +1,130 @@
+package com.parking.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.parking.model.PricingRule;
+import com.parking.repository.PricingRuleRepository;
+import com.parking.util.TransactionHooks;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Owns the pricing rules and the compiled evaluator used by the booking and penalty paths.
+// Every change recompiles the rules and swaps the evaluator in one step; the global settings
+// version is bumped alongside so other instances recompile on their next refresh.
+@Service
+@Slf4j
+public class PricingService {
+
+    @Autowired
+    private PricingRuleRepository pricingRuleRepository;
+
+    @Autowired
+    private GlobalSettingsService globalSettingsService;
+
+    private final AtomicReference<CompiledPricing> pricing = new AtomicReference<>();
+
+    public CompiledPricing getPricing() {
+        CompiledPricing current = pricing.get();
+        if (current != null) return current;
+        return reload();
+    }
+
+    public List<PricingRule> getRules() {
+        return pricingRuleRepository.findAllByOrderByPriorityAscCreatedAtAsc();
+    }
+
+    @Transactional
+    public PricingRule createRule(PricingRule rule) {
+        validate(rule);
+        LocalDateTime now = LocalDateTime.now();
+        rule.setId(null);
+        rule.setCreatedAt(now);
+        rule.setUpdatedAt(now);
+        PricingRule savedRule = pricingRuleRepository.save(rule);
+        publishChange();
+        return savedRule;
+    }
+
+    @Transactional
+    public PricingRule updateRule(UUID id, PricingRule ruleDetails) {
+        validate(ruleDetails);
+        PricingRule rule = pricingRuleRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Pricing rule not found with id: " + id));
+        rule.setName(ruleDetails.getName());
+        rule.setType(ruleDetails.getType());
+        rule.setPriority(ruleDetails.getPriority());
+        rule.setSlotClass(ruleDetails.getSlotClass());
+        rule.setStartHour(ruleDetails.getStartHour());
+        rule.setEndHour(ruleDetails.getEndHour());
+        rule.setMinHours(ruleDetails.getMinHours());
+        rule.setMaxHours(ruleDetails.getMaxHours());
+        rule.setRateMultiplier(ruleDetails.getRateMultiplier());
+        rule.setHourlySurcharge(ruleDetails.getHourlySurcharge());
+        rule.setUpdatedAt(LocalDateTime.now());
+        PricingRule savedRule = pricingRuleRepository.save(rule);
+        publishChange();
+        return savedRule;
+    }
+
+    @Transactional
+    public void deleteRule(UUID id) {
+        PricingRule rule = pricingRuleRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Pricing rule not found with id: " + id));
+        pricingRuleRepository.delete(rule);
+        publishChange();
+    }
+
+    // Recompiles when the rules were changed through another instance
+    @Scheduled(fixedDelayString = "${app.settings.refresh-interval-ms:30000}",
+            initialDelayString = "${app.settings.refresh-interval-ms:30000}")
+    public void refreshIfStale() {
+        CompiledPricing current = pricing.get();
+        if (current != null && current.version() != globalSettingsService.getSnapshot().version()) {
+            reload();
+        }
+    }
+
+    private void publishChange() {
+        globalSettingsService.bumpVersion();
+        TransactionHooks.afterCommit(this::reload);
+    }
+
+    private CompiledPricing reload() {
+        long version = globalSettingsService.getSnapshot().version();
+        List<PricingRule> rules = getRules();
+        CompiledPricing compiled = CompiledPricing.compile(version, rules);
+        pricing.set(compiled);
+        log.info("Compiled {} pricing rules (settings version {})", rules.size(), version);
+        return compiled;
+    }
+
+    private static void validate(PricingRule rule) {
+        if (rule.getName() == null || rule.getName().isBlank()) {
+            throw new RuntimeException("Rule name is required");
+        }
+        if (rule.getType() == null) {
+            throw new RuntimeException("Rule type is required");
+        }
+        if ((rule.getStartHour() == null) != (rule.getEndHour() == null)) {
+            throw new RuntimeException("Start hour and end hour must be given together");
+        }
+        if (rule.getStartHour() != null && (rule.getStartHour() < 0 || rule.getStartHour() > 23
+                || rule.getEndHour() < 0 || rule.getEndHour() > 24)) {
+            throw new RuntimeException("Hours must be between 0 and 24");
+        }
+        if (rule.getMinHours() < 0 || (rule.getMaxHours() != null && rule.getMaxHours() <= rule.getMinHours())) {
+            throw new RuntimeException("Hour tier must satisfy 0 <= minHours < maxHours");
+        }
+        if (rule.getRateMultiplier() < 0 || rule.getHourlySurcharge() < 0) {
+            throw new RuntimeException("Rate multiplier and hourly surcharge must not be negative");
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.parking.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.dto.SlotAvailability;
+import com.parking.service.SlotStateStore.SlotChanges;
+import com.parking.service.SlotStateStore.SlotView;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Server-sent events feed of slot availability. A subscriber first gets a snapshot of every slot,
+// then one delta per interval holding the slots changed since the previous one (however often
+// each changed). Frames are rendered once and shared by all subscribers. Each subscriber has a
+// bounded queue written by a small sender pool; frames that pile up behind a slow write are sent
+// together in one write, and when the queue overflows it is dropped in favour of a fresh snapshot.
+// A subscriber whose write has not completed within the stall timeout is dropped from the feed and
+// its stream closed once the write returns; an EventSource then reconnects and starts from a snapshot.
+@Service
+@Slf4j
+public class SlotAvailabilityFeed {
+
+    private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    private static final String HEARTBEAT = ":\n\n";
+
+    @Autowired
+    private SlotStateStore slotStateStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.slots.stream.max-subscribers:20000}")
+    private int maxSubscribers;
+
+    @Value("${app.slots.stream.max-queued-frames:16}")
+    private int maxQueuedFrames;
+
+    @Value("${app.slots.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.slots.stream.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${app.slots.stream.stall-timeout-ms:5000}")
+    private long stallTimeoutMs;
+
+    private final ExecutorService sender;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+    private long lastFrameMillis = System.currentTimeMillis();
+
+    // Rendered snapshot and the store modification count it was rendered at; guarded by this
+    private String snapshotFrame;
+    private long snapshotModCount = -1;
+
+    private final AtomicLong framesPublished = new AtomicLong();
+    private final AtomicLong snapshotsSent = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+
+    public SlotAvailabilityFeed(@Value("${app.slots.stream.sender-threads:8}") int senderThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "slot-stream-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RuntimeException("Too many slot stream subscribers");
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMs));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            subscriber.emitter.complete();
+        });
+        subscriber.emitter.onError(error -> subscribers.remove(subscriber));
+        // The snapshot is sent from the request thread, so it is buffered by the emitter and written
+        // (with the headers) as the response starts; deltas published meanwhile wait behind it
+        synchronized (subscriber) {
+            subscribers.add(subscriber);
+            try {
+                subscriber.emitter.send(Set.of(new DataWithMediaType(snapshotFrame(), TEXT_PLAIN_UTF8)));
+            } catch (IOException e) {
+                subscribers.remove(subscriber);
+                throw new RuntimeException("Failed to start slot stream: " + e.getMessage(), e);
+            }
+            snapshotsSent.incrementAndGet();
+        }
+        return subscriber.emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${app.slots.stream.interval-ms:250}")
+    public void publish() {
+        SlotChanges changes = slotStateStore.drainChanges();
+        long now = System.currentTimeMillis();
+        String frame;
+        if (changes != null) {
+            Map<String, Object> delta = new LinkedHashMap<>();
+            delta.put("version", version.incrementAndGet());
+            delta.put("at", now);
+            delta.put("updated", changes.updated().stream().map(SlotAvailability::of).toList());
+            delta.put("removed", changes.removed());
+            frame = render("delta", version.get(), delta);
+            framesPublished.incrementAndGet();
+        } else if (now - lastFrameMillis >= heartbeatMs) {
+            frame = HEARTBEAT;
+        } else {
+            return;
+        }
+        lastFrameMillis = now;
+        for (Subscriber subscriber : subscribers) {
+            long sendingSince = subscriber.sendingSince;
+            if (sendingSince != 0 && now - sendingSince > stallTimeoutMs) {
+                subscribers.remove(subscriber);
+                stalls.incrementAndGet();
+                continue;
+            }
+            subscriber.offer(frame);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("version", version.get());
+        stats.put("framesPublished", framesPublished.get());
+        stats.put("snapshotsSent", snapshotsSent.get());
+        stats.put("overflows", overflows.get());
+        stats.put("sendFailures", sendFailures.get());
+        stats.put("stalls", stalls.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.complete();
+            } catch (RuntimeException e) {
+                // The container may already have closed the response
+            }
+        }
+        subscribers.clear();
+    }
+
+    private synchronized String snapshotFrame() {
+        if (snapshotModCount != slotStateStore.modCount()) {
+            SlotView view = slotStateStore.allSlots();
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("version", version.get());
+            snapshot.put("at", System.currentTimeMillis());
+            snapshot.put("slots", view.slots().stream().map(SlotAvailability::of).toList());
+            snapshotFrame = render("snapshot", version.get(), snapshot);
+            snapshotModCount = view.modCount();
+        }
+        return snapshotFrame;
+    }
+
+    private String render(String event, long id, Object data) {
+        try {
+            return "id:" + id + "\nevent:" + event + "\ndata:" + objectMapper.writeValueAsString(data) + "\n\n";
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to render slot stream frame: " + e.getMessage(), e);
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // Guarded by this
+        private final ArrayDeque<String> queue = new ArrayDeque<>();
+        private boolean needsSnapshot;
+        private boolean scheduled;
+        // Start of the write in progress, or 0
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private synchronized void offer(String frame) {
+            if (queue.size() >= maxQueuedFrames) {
+                overflows.incrementAndGet();
+                queue.clear();
+                needsSnapshot = true;
+            } else if (!needsSnapshot) {
+                queue.add(frame);
+            }
+            if (!scheduled) {
+                scheduled = true;
+                sender.execute(this::drain);
+            }
+        }
+
+        // At most one drain per subscriber is queued or running, so its frames stay in order
+        private void drain() {
+            while (true) {
+                Set<DataWithMediaType> frames = new LinkedHashSet<>();
+                synchronized (this) {
+                    if (needsSnapshot) {
+                        // Deltas already queued are covered by the snapshot and later ones follow it
+                        frames.add(new DataWithMediaType(snapshotFrame(), TEXT_PLAIN_UTF8));
+                        needsSnapshot = false;
+                        snapshotsSent.incrementAndGet();
+                    }
+                    for (String frame : queue) {
+                        frames.add(new DataWithMediaType(frame, TEXT_PLAIN_UTF8));
+                    }
+                    queue.clear();
+                    if (frames.isEmpty()) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                try {
+                    sendingSince = System.currentTimeMillis();
+                    emitter.send(frames);
+                } catch (IOException | IllegalStateException e) {
+                    sendFailures.incrementAndGet();
+                    subscribers.remove(this);
+                    emitter.completeWithError(e);
+                    stop();
+                    return;
+                } finally {
+                    sendingSince = 0;
+                }
+                // Dropped as stalled while the write was blocked
+                if (!subscribers.contains(this)) {
+                    emitter.complete();
+                    stop();
+                    return;
+                }
+            }
+        }
+
+        private synchronized void stop() {
+            queue.clear();
+            scheduled = false;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.parking.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+// In-memory index of the reserved [startTime, endTime) intervals of every slot.
+// Intervals of one slot never overlap, so a map sorted by start time is enough
+// to answer overlap checks with two O(log n) lookups.
+@Component
+public class SlotReservationIndex {
+
+    private final Map<UUID, NavigableMap<LocalDateTime, LocalDateTime>> reservations = new ConcurrentHashMap<>();
+
+    public boolean tryReserve(UUID slotId, LocalDateTime startTime, LocalDateTime endTime) {
+        NavigableMap<LocalDateTime, LocalDateTime> intervals =
+                reservations.computeIfAbsent(slotId, id -> new TreeMap<>());
+        synchronized (intervals) {
+            if (overlaps(intervals, startTime, endTime)) {
+                return false;
+            }
+            intervals.put(startTime, endTime);
+            return true;
+        }
+    }
+
+    public void release(UUID slotId, LocalDateTime startTime, LocalDateTime endTime) {
+        NavigableMap<LocalDateTime, LocalDateTime> intervals = reservations.get(slotId);
+        if (intervals == null) return;
+        synchronized (intervals) {
+            intervals.remove(startTime, endTime);
+        }
+    }
+
+    public boolean isFree(UUID slotId, LocalDateTime startTime, LocalDateTime endTime) {
+        NavigableMap<LocalDateTime, LocalDateTime> intervals = reservations.get(slotId);
+        if (intervals == null) return true;
+        synchronized (intervals) {
+            return !overlaps(intervals, startTime, endTime);
+        }
+    }
+
+    public void removeSlot(UUID slotId) {
+        reservations.remove(slotId);
+    }
+
+    public void clear() {
+        reservations.clear();
+    }
+
+    public int size() {
+        return reservations.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private static boolean overlaps(NavigableMap<LocalDateTime, LocalDateTime> intervals,
+            LocalDateTime startTime, LocalDateTime endTime) {
+        // Closest interval starting at or before the requested start must end before it
+        Map.Entry<LocalDateTime, LocalDateTime> before = intervals.floorEntry(startTime);
+        if (before != null && before.getValue().isAfter(startTime)) return true;
+        // Closest interval starting after the requested start must begin after the requested end
+        LocalDateTime nextStart = intervals.higherKey(startTime);
+        return nextStart != null && nextStart.isBefore(endTime);
+    }
+}
@@ -0,0 +1,311 @@
+package com.parking.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.parking.model.ParkingSlot;
+import com.parking.model.ParkingSlot.SlotStatus;
+
+// In-memory copy of the parking_slots table. Every slot gets a dense int ordinal indexing
+// parallel arrays, and a BitSet tracks which ordinals are free, so the availability view
+// can be answered without touching the database. Written through by ParkingSlotService.
+// Changed slots are tracked until drained, so SlotAvailabilityFeed can publish deltas.
+// Writes made through other instances arrive through reconcile() against the table.
+@Component
+public class SlotStateStore {
+
+    // Slots written and removed since the last drainChanges(), in one drained batch
+    public record SlotChanges(List<ParkingSlot> updated, List<UUID> removed) {
+    }
+
+    // Every slot, as of the given modification count
+    public record SlotView(long modCount, List<ParkingSlot> slots) {
+    }
+
+    private static final byte AVAILABLE = 0;
+    private static final byte OCCUPIED = 1;
+
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final BitSet present = new BitSet();
+    private final BitSet free = new BitSet();
+
+    private UUID[] ids = new UUID[64];
+    private String[] slotNumbers = new String[64];
+    private byte[] statuses = new byte[64];
+    private double[] hourlyRates = new double[64];
+    private String[] slotClasses = new String[64];
+    private long[] bookedByHigh = new long[64];
+    private long[] bookedByLow = new long[64];
+    private final BitSet booked = new BitSet();
+    private LocalDateTime[] startTimes = new LocalDateTime[64];
+    private LocalDateTime[] endTimes = new LocalDateTime[64];
+    private LocalDateTime[] createdAts = new LocalDateTime[64];
+    private LocalDateTime[] updatedAts = new LocalDateTime[64];
+    // Modification count of each slot's last write, and of the last removal
+    private long[] writtenAt = new long[64];
+    private long removedAt;
+
+    private final BitSet changed = new BitSet();
+    private final List<UUID> removed = new ArrayList<>();
+    private long modCount;
+
+    private volatile boolean loaded;
+
+    // Rendered list of available slots, rebuilt lazily after a write; the slots in it are shared and read-only
+    private volatile List<ParkingSlot> availableView;
+
+    public synchronized void load(List<ParkingSlot> parkingSlots) {
+        ordinals.clear();
+        present.clear();
+        free.clear();
+        booked.clear();
+        parkingSlots.forEach(this::write);
+        changed.clear();
+        removed.clear();
+        modified();
+        loaded = true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized void put(ParkingSlot parkingSlot) {
+        write(parkingSlot);
+        modified();
+    }
+
+    public synchronized void remove(UUID id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) return;
+        present.clear(ordinal);
+        free.clear(ordinal);
+        booked.clear(ordinal);
+        changed.clear(ordinal);
+        removed.add(id);
+        removedAt = modCount + 1;
+        ids[ordinal] = null;
+        slotNumbers[ordinal] = null;
+        slotClasses[ordinal] = null;
+        modified();
+    }
+
+    public synchronized void markOccupied(UUID id, UUID userId, LocalDateTime startTime, LocalDateTime endTime,
+            LocalDateTime updatedAt) {
+        Integer ordinal = ordinals.get(id);
+        if (ordinal == null) return;
+        statuses[ordinal] = OCCUPIED;
+        free.clear(ordinal);
+        setBookedBy(ordinal, userId);
+        startTimes[ordinal] = startTime;
+        endTimes[ordinal] = endTime;
+        updatedAts[ordinal] = updatedAt;
+        touched(ordinal);
+        modified();
+    }
+
+    public synchronized void markAvailable(UUID id, LocalDateTime updatedAt) {
+        Integer ordinal = ordinals.get(id);
+        if (ordinal == null) return;
+        statuses[ordinal] = AVAILABLE;
+        free.set(ordinal);
+        setBookedBy(ordinal, null);
+        startTimes[ordinal] = null;
+        endTimes[ordinal] = null;
+        updatedAts[ordinal] = updatedAt;
+        touched(ordinal);
+        modified();
+    }
+
+    public synchronized OptionalDouble hourlyRate(UUID id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal == null ? OptionalDouble.empty() : OptionalDouble.of(hourlyRates[ordinal]);
+    }
+
+    public synchronized Optional<String> slotClass(UUID id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal == null ? Optional.empty() : Optional.ofNullable(slotClasses[ordinal]);
+    }
+
+    public synchronized Optional<ParkingSlot> snapshot(UUID id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal == null ? Optional.empty() : Optional.of(toParkingSlot(ordinal));
+    }
+
+    public synchronized int size() {
+        return ordinals.size();
+    }
+
+    public synchronized int availableCount() {
+        return free.cardinality();
+    }
+
+    public synchronized long modCount() {
+        return modCount;
+    }
+
+    public synchronized SlotView allSlots() {
+        List<ParkingSlot> slots = new ArrayList<>(ordinals.size());
+        for (int ordinal = present.nextSetBit(0); ordinal >= 0; ordinal = present.nextSetBit(ordinal + 1)) {
+            slots.add(toParkingSlot(ordinal));
+        }
+        return new SlotView(modCount, slots);
+    }
+
+    // Returns the slots changed since the previous call (each once, in its current state), or null if none
+    public synchronized SlotChanges drainChanges() {
+        if (changed.isEmpty() && removed.isEmpty()) return null;
+        List<ParkingSlot> updated = new ArrayList<>(changed.cardinality());
+        for (int ordinal = changed.nextSetBit(0); ordinal >= 0; ordinal = changed.nextSetBit(ordinal + 1)) {
+            updated.add(toParkingSlot(ordinal));
+        }
+        SlotChanges changes = new SlotChanges(updated, List.copyOf(removed));
+        changed.clear();
+        removed.clear();
+        return changes;
+    }
+
+    // Brings the copy in line with table rows read when modCount() was readModCount: slots that differ
+    // from their row are rewritten, added or removed, and show up in drainChanges(). Slots written
+    // through this instance since the read are newer than their rows and kept. Returns the slots changed.
+    public synchronized int reconcile(long readModCount, List<ParkingSlot> rows) {
+        int reconciled = 0;
+        for (ParkingSlot row : rows) {
+            Integer ordinal = ordinals.get(row.getId());
+            if (ordinal == null ? removedAt > readModCount
+                    : writtenAt[ordinal] > readModCount || sameState(ordinal, row)) {
+                continue;
+            }
+            write(row);
+            reconciled++;
+        }
+        Set<UUID> rowIds = rows.stream().map(ParkingSlot::getId).collect(Collectors.toSet());
+        for (UUID id : List.copyOf(ordinals.keySet())) {
+            if (!rowIds.contains(id) && writtenAt[ordinals.get(id)] <= readModCount) {
+                remove(id);
+                reconciled++;
+            }
+        }
+        if (reconciled > 0) modified();
+        return reconciled;
+    }
+
+    public List<ParkingSlot> availableSlots() {
+        List<ParkingSlot> view = availableView;
+        if (view != null) return view;
+        synchronized (this) {
+            if (availableView == null) {
+                List<ParkingSlot> slots = new ArrayList<>(free.cardinality());
+                for (int ordinal = free.nextSetBit(0); ordinal >= 0; ordinal = free.nextSetBit(ordinal + 1)) {
+                    slots.add(toParkingSlot(ordinal));
+                }
+                availableView = Collections.unmodifiableList(slots);
+            }
+            return availableView;
+        }
+    }
+
+    private void write(ParkingSlot parkingSlot) {
+        Integer ordinal = ordinals.get(parkingSlot.getId());
+        if (ordinal == null) {
+            ordinal = present.nextClearBit(0);
+            ensureCapacity(ordinal + 1);
+            ordinals.put(parkingSlot.getId(), ordinal);
+            present.set(ordinal);
+        }
+        ids[ordinal] = parkingSlot.getId();
+        slotNumbers[ordinal] = parkingSlot.getSlotNumber();
+        statuses[ordinal] = parkingSlot.getStatus() == SlotStatus.OCCUPIED ? OCCUPIED : AVAILABLE;
+        free.set(ordinal, statuses[ordinal] == AVAILABLE);
+        hourlyRates[ordinal] = parkingSlot.getHourlyRate();
+        slotClasses[ordinal] = parkingSlot.getSlotClass();
+        setBookedBy(ordinal, parkingSlot.getBookedBy());
+        startTimes[ordinal] = parkingSlot.getStartTime();
+        endTimes[ordinal] = parkingSlot.getEndTime();
+        createdAts[ordinal] = parkingSlot.getCreatedAt();
+        updatedAts[ordinal] = parkingSlot.getUpdatedAt();
+        touched(ordinal);
+    }
+
+    private void touched(int ordinal) {
+        changed.set(ordinal);
+        writtenAt[ordinal] = modCount + 1;
+    }
+
+    // Compares what the slot endpoints expose, with times at the precision the table keeps (rounded
+    // or truncated to microseconds, depending on the database)
+    private boolean sameState(int ordinal, ParkingSlot row) {
+        SlotStatus status = statuses[ordinal] == OCCUPIED ? SlotStatus.OCCUPIED : SlotStatus.AVAILABLE;
+        UUID bookedBy = booked.get(ordinal) ? new UUID(bookedByHigh[ordinal], bookedByLow[ordinal]) : null;
+        return status == row.getStatus()
+                && Objects.equals(bookedBy, row.getBookedBy())
+                && Objects.equals(slotNumbers[ordinal], row.getSlotNumber())
+                && hourlyRates[ordinal] == row.getHourlyRate()
+                && Objects.equals(slotClasses[ordinal], row.getSlotClass())
+                && sameTime(startTimes[ordinal], row.getStartTime())
+                && sameTime(endTimes[ordinal], row.getEndTime())
+                && sameTime(updatedAts[ordinal], row.getUpdatedAt());
+    }
+
+    private static boolean sameTime(LocalDateTime time, LocalDateTime rowTime) {
+        if (time == null || rowTime == null) return time == rowTime;
+        return Math.abs(ChronoUnit.NANOS.between(time, rowTime)) < 1000;
+    }
+
+    private void modified() {
+        modCount++;
+        availableView = null;
+    }
+
+    private void setBookedBy(int ordinal, UUID userId) {
+        booked.set(ordinal, userId != null);
+        bookedByHigh[ordinal] = userId == null ? 0 : userId.getMostSignificantBits();
+        bookedByLow[ordinal] = userId == null ? 0 : userId.getLeastSignificantBits();
+    }
+
+    private ParkingSlot toParkingSlot(int ordinal) {
+        return new ParkingSlot(
+                ids[ordinal],
+                slotNumbers[ordinal],
+                statuses[ordinal] == OCCUPIED ? SlotStatus.OCCUPIED : SlotStatus.AVAILABLE,
+                booked.get(ordinal) ? new UUID(bookedByHigh[ordinal], bookedByLow[ordinal]) : null,
+                startTimes[ordinal],
+                endTimes[ordinal],
+                createdAts[ordinal],
+                updatedAts[ordinal],
+                hourlyRates[ordinal],
+                slotClasses[ordinal]);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) return;
+        int newCapacity = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        slotNumbers = Arrays.copyOf(slotNumbers, newCapacity);
+        statuses = Arrays.copyOf(statuses, newCapacity);
+        hourlyRates = Arrays.copyOf(hourlyRates, newCapacity);
+        slotClasses = Arrays.copyOf(slotClasses, newCapacity);
+        bookedByHigh = Arrays.copyOf(bookedByHigh, newCapacity);
+        bookedByLow = Arrays.copyOf(bookedByLow, newCapacity);
+        startTimes = Arrays.copyOf(startTimes, newCapacity);
+        endTimes = Arrays.copyOf(endTimes, newCapacity);
+        createdAts = Arrays.copyOf(createdAts, newCapacity);
+        updatedAts = Arrays.copyOf(updatedAts, newCapacity);
+        writtenAt = Arrays.copyOf(writtenAt, newCapacity);
+    }
+}
@@ -7,13 +7,18 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.parking.dto.UserSummary;
 import com.parking.model.User;
 import com.parking.repository.UserRepository;
+import com.parking.security.VerifiedTokenCache;
 
 @Service
 public class UserService {
@@ -24,10 +29,21 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+    
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+    
     // private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<UserSummary> getAllUsers() {
+        return userRepository.findAllWithRoles().stream().map(UserSummary::of).toList();
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Stream<User> streamAllUsers() {
+        return userRepository.streamAll();
     }
     
     public Optional<User> getUserById(UUID id) {
@@ -50,24 +66,34 @@ public class UserService {
         user.setCreatedAt(now);
         user.setUpdatedAt(now);
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        dashboardStatsService.userCreated();
+        return savedUser;
     }
     
     public User updateUser(UUID id, User userDetails) {
         return userRepository.findById(id)
                 .map(existingUser -> {
+                    // Tokens carry the username and roles, so existing ones must not outlive a change
+                    String previousUsername = existingUser.getUsername();
                     if (userDetails.getUsername() != null) existingUser.setUsername(userDetails.getUsername());
                     if (userDetails.getEmail() != null) existingUser.setEmail(userDetails.getEmail());
                     if (userDetails.getPassword() != null) existingUser.setPassword(passwordEncoder.encode(userDetails.getPassword()));
                     if (userDetails.getRoles() != null && !userDetails.getRoles().isEmpty()) existingUser.setRoles(userDetails.getRoles());
                     existingUser.setUpdatedAt(LocalDateTime.now());
-                    return userRepository.save(existingUser);
+                    User savedUser = userRepository.save(existingUser);
+                    verifiedTokenCache.revokeUser(previousUsername);
+                    return savedUser;
                 })
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
     
     public void deleteUser(UUID id) {
-        userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(user -> {
+            userRepository.delete(user);
+            verifiedTokenCache.revokeUser(user.getUsername());
+            dashboardStatsService.userDeleted();
+        });
     }
     
     public boolean existsByUsername(String username) {
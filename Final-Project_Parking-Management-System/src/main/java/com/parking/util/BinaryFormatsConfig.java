@@ -0,0 +1,40 @@
+package com.parking.util;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+// Lets clients on slow links ask for CBOR or Smile instead of JSON (Accept: application/cbor or
+// application/x-jackson-smile), e.g. for the slot map and booking lists. Both are built from the same
+// Jackson settings as the JSON converter, so the fields and values are the same. Smile also writes
+// repeated property names and short strings once and refers back to them.
+@Configuration
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    // Replaces the CBOR and Smile converters Spring registers by default (their mappers write dates as
+    // arrays) and goes after the JSON converter, so JSON is still chosen when the client accepts anything
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.factory(new CBORFactory()).build()));
+        SmileFactory smileFactory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.factory(smileFactory).build()));
+    }
+}
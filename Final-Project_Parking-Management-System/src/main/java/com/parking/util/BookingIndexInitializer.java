@@ -0,0 +1,98 @@
+package com.parking.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.parking.model.Booking.BookingStatus;
+import com.parking.repository.BookingRepository;
+import com.parking.service.BookingExpiryWheel;
+import com.parking.service.BookingJournal;
+import com.parking.service.BookingJournal.ActiveBooking;
+import com.parking.service.SlotReservationIndex;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Rebuilds the slot reservation index and the expiry wheel from the active bookings. The bookings
+// table decides which bookings are active (and penalized); the booking journal only saves reading
+// their rows. Bookings the journal does not know, e.g. created through another instance, are read
+// from the table, and the journal gets a new snapshot whenever it disagreed.
+@Component
+@Order(3) // Run after GlobalSettingsInitializer
+@Slf4j
+public class BookingIndexInitializer implements CommandLineRunner {
+
+    // Keeps the IN list of the lookup of missing bookings well below driver parameter limits
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingJournal bookingJournal;
+
+    @Autowired
+    private SlotReservationIndex slotReservationIndex;
+
+    @Autowired
+    private BookingExpiryWheel bookingExpiryWheel;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Map<UUID, ActiveBooking> journaled = bookingJournal.recoverActiveBookings()
+                .map(bookings -> bookings.stream().collect(Collectors.toMap(ActiveBooking::bookingId,
+                        Function.identity())))
+                .orElse(null);
+        List<ActiveBooking> active;
+        int fromJournal = 0;
+        if (journaled == null) {
+            active = bookingRepository.findByStatus(BookingStatus.ACTIVE).stream().map(ActiveBooking::of).toList();
+            bookingJournal.writeSnapshot(active);
+        } else {
+            active = new ArrayList<>();
+            List<UUID> missing = new ArrayList<>();
+            boolean changed = false;
+            for (Object[] row : bookingRepository.findIdAndPenaltyByStatus(BookingStatus.ACTIVE)) {
+                UUID id = (UUID) row[0];
+                boolean penalty = (Boolean) row[1];
+                ActiveBooking booking = journaled.remove(id);
+                if (booking == null) {
+                    missing.add(id);
+                    continue;
+                }
+                if (booking.penalty() != penalty) {
+                    booking = new ActiveBooking(id, booking.slotId(), booking.startTime(), booking.endTime(),
+                            booking.bookingAmount(), penalty);
+                    changed = true;
+                }
+                active.add(booking);
+            }
+            fromJournal = active.size();
+            for (int from = 0; from < missing.size(); from += LOOKUP_CHUNK_SIZE) {
+                bookingRepository.findAllById(missing.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, missing.size())))
+                        .forEach(booking -> active.add(ActiveBooking.of(booking)));
+            }
+            // Whatever is left in the journal is no longer active in the table
+            if (changed || !missing.isEmpty() || !journaled.isEmpty()) bookingJournal.writeSnapshot(active);
+        }
+
+        slotReservationIndex.clear();
+        bookingExpiryWheel.clear();
+        for (ActiveBooking booking : active) {
+            slotReservationIndex.tryReserve(booking.slotId(), booking.startTime(), booking.endTime());
+            // Bookings already past their end time are handed to the first sweep
+            bookingExpiryWheel.schedule(booking.bookingId(), booking.slotId(), booking.endTime(),
+                    booking.bookingAmount(), booking.penalty());
+        }
+        log.info("Loaded {} active bookings, {} of them from the booking journal ({} reservations, {} on the expiry wheel)",
+                active.size(), fromJournal, slotReservationIndex.size(), bookingExpiryWheel.size());
+    }
+}
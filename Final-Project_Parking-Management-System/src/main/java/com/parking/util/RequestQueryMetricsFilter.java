@@ -0,0 +1,53 @@
+package com.parking.util;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Records how many JDBC statements and entity loads each request made, per endpoint, as the
+// parking.http.request.statements and parking.http.request.entity.loads distributions.
+// Runs ahead of the security filters so queries made while authenticating are counted too.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+
+    private static final double[] BUCKETS = { 1, 2, 3, 4, 5, 6, 8, 10, 15, 20, 50, 100 };
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementMetrics.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            summary("parking.http.request.statements", request.getMethod(), uri)
+                    .record(StatementMetrics.statements());
+            summary("parking.http.request.entity.loads", request.getMethod(), uri)
+                    .record(StatementMetrics.entityLoads());
+        }
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .tags("method", method, "uri", uri)
+                .serviceLevelObjectives(BUCKETS)
+                .register(meterRegistry);
+    }
+}
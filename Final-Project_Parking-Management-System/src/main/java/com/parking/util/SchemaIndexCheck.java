@@ -0,0 +1,117 @@
+package com.parking.util;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Compares the indexes the repository queries rely on with the ones the database has and logs each
+// missing one, e.g. when a migration was skipped or an index dropped by hand. An index matches when
+// its leading columns are the expected ones, whatever it is called.
+@Component
+@Order(0) // Run first; it only reports
+@Slf4j
+public class SchemaIndexCheck implements CommandLineRunner {
+
+    // Alternatives are separated by '|': the penalty index is partial on PostgreSQL, composite elsewhere
+    private static final List<ExpectedIndex> EXPECTED = List.of(
+            new ExpectedIndex("bookings", "user_id, created_at, id", "booking history"),
+            new ExpectedIndex("bookings", "user_id, status, created_at, id", "booking history by status"),
+            new ExpectedIndex("bookings", "slot_id", "BookingRepository.findBySlotId"),
+            new ExpectedIndex("bookings", "status", "BookingRepository.findByStatus/countByStatus"),
+            new ExpectedIndex("bookings", "updated_at | penalty, updated_at", "BookingRepository.findByPenaltyTrue(Pageable)"),
+            new ExpectedIndex("parking_slots", "slot_number", "ParkingSlotRepository.existsBySlotNumber"),
+            new ExpectedIndex("parking_slots", "status", "ParkingSlotRepository.findByStatus"),
+            new ExpectedIndex("users", "username", "UserRepository.findByUsername"),
+            new ExpectedIndex("users", "email", "UserRepository.findByEmail"),
+            new ExpectedIndex("user_roles", "user_id", "User.roles"),
+            new ExpectedIndex("pricing_rules", "priority, created_at", "PricingRuleRepository.findAllByOrderByPriorityAscCreatedAtAsc"),
+            new ExpectedIndex("idempotency_keys", "created_at", "IdempotencyRecordRepository.deleteCreatedBefore"));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.schema.index-check.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!enabled) return;
+        List<String> missing = missingIndexes();
+        if (missing.isEmpty()) {
+            log.info("All {} indexes used by the repository queries are present", EXPECTED.size());
+            return;
+        }
+        missing.forEach(index -> log.warn("Missing index {}", index));
+    }
+
+    // Expected indexes the database does not have, as "table (columns) for query"
+    public List<String> missingIndexes() throws SQLException {
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, List<List<String>>> indexesByTable = new HashMap<>();
+            for (ExpectedIndex expected : EXPECTED) {
+                List<List<String>> indexes = indexesByTable.computeIfAbsent(expected.table(),
+                        table -> indexColumns(connection, metaData, table));
+                boolean present = Arrays.stream(expected.columns().split("\\|"))
+                        .map(columns -> Arrays.stream(columns.split(",")).map(String::trim).toList())
+                        .anyMatch(columns -> indexes.stream().anyMatch(index -> startsWith(index, columns)));
+                if (!present) {
+                    missing.add(expected.table() + " (" + expected.columns() + ") for " + expected.usedBy());
+                }
+            }
+        }
+        return missing;
+    }
+
+    // Columns of every index on the table, in index order
+    private static List<List<String>> indexColumns(Connection connection, DatabaseMetaData metaData, String table) {
+        String name = storesUpperCase(metaData) ? table.toUpperCase(Locale.ROOT) : table;
+        Map<String, TreeMap<Short, String>> columnsByIndex = new HashMap<>();
+        try (ResultSet rows = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), name, false, true)) {
+            while (rows.next()) {
+                String index = rows.getString("INDEX_NAME");
+                String column = rows.getString("COLUMN_NAME");
+                if (index == null || column == null) continue;
+                columnsByIndex.computeIfAbsent(index, key -> new TreeMap<>())
+                        .put(rows.getShort("ORDINAL_POSITION"), column.replace("\"", "").toLowerCase(Locale.ROOT));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not read the indexes of " + table, e);
+        }
+        return columnsByIndex.values().stream().map(columns -> List.copyOf(columns.values())).toList();
+    }
+
+    private static boolean storesUpperCase(DatabaseMetaData metaData) {
+        try {
+            return metaData.storesUpperCaseIdentifiers();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static boolean startsWith(List<String> index, List<String> columns) {
+        return index.size() >= columns.size() && index.subList(0, columns.size()).equals(columns);
+    }
+
+    private record ExpectedIndex(String table, String columns, String usedBy) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.parking.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Coalesces concurrent identical reads: the first caller for a key runs the query on its own thread
+// and callers arriving while it runs wait for it and share the result. A finished result is reused
+// for up to maxStaleness (zero shares in-flight queries only). invalidate() forgets every result, so
+// a caller arriving after a committed write never gets a value loaded before it. Shared values must
+// not be modified by the callers. Outcomes are counted per key; the owner may publish coalescingRatio().
+public class SingleFlight<V> {
+
+    private final long maxStalenessNanos;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong joined = new AtomicLong();
+    private final AtomicLong cached = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private static final class Flight<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile long completedAt;
+    }
+
+    public SingleFlight(Duration maxStaleness, MeterRegistry meterRegistry) {
+        this.maxStalenessNanos = Math.max(0, maxStaleness.toNanos());
+        this.meterRegistry = meterRegistry;
+    }
+
+    public V get(String key, Supplier<V> loader) {
+        while (true) {
+            Flight<V> flight = flights.get(key);
+            if (flight != null && !flight.result.isDone()) {
+                count(joined, key, "joined");
+                return await(flight);
+            }
+            if (flight != null && !flight.result.isCompletedExceptionally()
+                    && System.nanoTime() - flight.completedAt <= maxStalenessNanos) {
+                count(cached, key, "cached");
+                return flight.result.join();
+            }
+
+            // Nothing usable: install our own flight, unless another caller beat us to it
+            Flight<V> own = new Flight<>();
+            boolean installed = flight == null ? flights.putIfAbsent(key, own) == null : flights.replace(key, flight, own);
+            if (!installed) continue;
+            count(executed, key, "executed");
+            try {
+                V value = loader.get();
+                own.completedAt = System.nanoTime();
+                own.result.complete(value);
+                if (maxStalenessNanos == 0) flights.remove(key, own);
+                return value;
+            } catch (RuntimeException | Error e) {
+                // Waiting callers get the failure too, the next one runs the query again
+                flights.remove(key, own);
+                own.result.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    // Queries still running finish for the callers already waiting on them, but are not shared any further
+    public void invalidate() {
+        if (flights.isEmpty()) return;
+        flights.clear();
+        invalidations.incrementAndGet();
+    }
+
+    public double coalescingRatio() {
+        long shared = joined.get() + cached.get();
+        long total = shared + executed.get();
+        return total == 0 ? 0 : (double) shared / total;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxStalenessMs", maxStalenessNanos / 1_000_000);
+        stats.put("executed", executed.get());
+        stats.put("joined", joined.get());
+        stats.put("cached", cached.get());
+        stats.put("coalescingRatio", coalescingRatio());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    private V await(Flight<V> flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    private void count(AtomicLong counter, String key, String outcome) {
+        counter.incrementAndGet();
+        meterRegistry.counter("parking.reads", "read", key, "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,30 @@
+package com.parking.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.parking.repository.ParkingSlotRepository;
+import com.parking.service.SlotStateStore;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Order(3) // Run after GlobalSettingsInitializer
+@Slf4j
+public class SlotStateStoreInitializer implements CommandLineRunner {
+
+    @Autowired
+    private ParkingSlotRepository parkingSlotRepository;
+
+    @Autowired
+    private SlotStateStore slotStateStore;
+
+    @Override
+    public void run(String... args) throws Exception {
+        slotStateStore.load(parkingSlotRepository.findAll());
+        log.info("Slot state store loaded with {} slots ({} available)",
+                slotStateStore.size(), slotStateStore.availableCount());
+    }
+}
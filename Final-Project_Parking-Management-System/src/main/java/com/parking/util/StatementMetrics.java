@@ -0,0 +1,162 @@
+package com.parking.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+
+// Times every JDBC statement by kind (verb and table, e.g. "update parking_slots") so the share of
+// each query in a request shows up in the parking.db.statements timer, and counts the statements
+// and entity loads made by the current thread for RequestQueryMetricsFilter.
+@Component
+public class StatementMetrics implements BeanPostProcessor, ApplicationListener<ContextRefreshedEvent> {
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+    private static final int STATEMENTS = 0;
+    private static final int ENTITY_LOADS = 1;
+    // Hibernate generates a bounded set of statements; anything past this is timed without caching
+    private static final int MAX_CACHED_STATEMENTS = 2000;
+    private static final Pattern FROM = Pattern.compile("\\bfrom\\s+([\\w.]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INTO = Pattern.compile("\\binto\\s+([\\w.]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern UPDATE = Pattern.compile("\\bupdate\\s+([\\w.]+)", Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    private ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private volatile boolean listening;
+
+    // Zeroes the current thread's counts
+    public static void reset() {
+        long[] counts = COUNTS.get();
+        counts[STATEMENTS] = 0;
+        counts[ENTITY_LOADS] = 0;
+    }
+
+    public static long statements() {
+        return COUNTS.get()[STATEMENTS];
+    }
+
+    public static long entityLoads() {
+        return COUNTS.get()[ENTITY_LOADS];
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, null);
+        }
+        return bean;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (listening) return;
+        listening = true;
+        entityManagerFactory.getObject().unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, loaded -> COUNTS.get()[ENTITY_LOADS]++);
+    }
+
+    // Wraps the JDBC objects down to the statements; sql is known for prepared and callable statements
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, T target, String sql) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            boolean execute = target instanceof Statement && method.getName().startsWith("execute");
+            long start = execute ? System.nanoTime() : 0;
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (execute) {
+                    String executed = sql != null ? sql : args != null && args.length > 0 ? (String) args[0] : null;
+                    timer(executed).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    COUNTS.get()[STATEMENTS]++;
+                }
+            }
+            return wrap(method, args, result);
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private Object wrap(Method method, Object[] args, Object result) {
+        if (result instanceof Connection connection && method.getName().equals("getConnection")) {
+            return proxy(Connection.class, connection, null);
+        }
+        if (result instanceof CallableStatement statement) {
+            return proxy(CallableStatement.class, statement, (String) args[0]);
+        }
+        if (result instanceof PreparedStatement statement) {
+            return proxy(PreparedStatement.class, statement, (String) args[0]);
+        }
+        if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+            return proxy(Statement.class, statement, null);
+        }
+        return result;
+    }
+
+    private Timer timer(String sql) {
+        if (sql == null) return timer("unknown", "unknown");
+        Timer timer = timers.get(sql);
+        if (timer != null) return timer;
+        String verb = verb(sql);
+        timer = timer(verb, table(sql, verb));
+        if (timers.size() < MAX_CACHED_STATEMENTS) timers.put(sql, timer);
+        return timer;
+    }
+
+    private Timer timer(String verb, String table) {
+        return Timer.builder("parking.db.statements")
+                .tag("statement", verb + " " + table)
+                .register(meterRegistry.getObject());
+    }
+
+    private static String verb(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) end++;
+        return end == 0 ? "other" : trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    // The table the statement is about: after INTO for inserts, UPDATE for updates, else the first FROM
+    private static String table(String sql, String verb) {
+        Pattern pattern = switch (verb) {
+            case "insert" -> INTO;
+            case "update" -> UPDATE;
+            default -> FROM;
+        };
+        Matcher matcher = pattern.matcher(sql);
+        return matcher.find() ? matcher.group(1).toLowerCase(Locale.ROOT) : "other";
+    }
+}
@@ -0,0 +1,3 @@
+-- Published version of the settings, bumped on every change so instances can tell when their cached
+-- copy is stale
+ALTER TABLE global_settings ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL;
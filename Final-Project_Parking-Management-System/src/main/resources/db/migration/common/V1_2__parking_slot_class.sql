@@ -0,0 +1,2 @@
+-- Optional slot class (e.g. COMPACT, EV) that pricing rules can target
+ALTER TABLE parking_slots ADD COLUMN IF NOT EXISTS slot_class varchar(255);
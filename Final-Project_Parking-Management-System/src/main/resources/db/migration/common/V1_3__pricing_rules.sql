@@ -0,0 +1,18 @@
+-- Configurable booking and penalty pricing rules (PricingService)
+
+CREATE TABLE IF NOT EXISTS pricing_rules (
+    id uuid NOT NULL,
+    name varchar(255) NOT NULL,
+    rule_type varchar(255) NOT NULL CHECK (rule_type IN ('BOOKING', 'PENALTY')),
+    priority integer NOT NULL,
+    slot_class varchar(255),
+    start_hour integer,
+    end_hour integer,
+    min_hours integer NOT NULL,
+    max_hours integer,
+    rate_multiplier float(53) NOT NULL,
+    hourly_surcharge float(53) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    CONSTRAINT pk_pricing_rules PRIMARY KEY (id)
+);
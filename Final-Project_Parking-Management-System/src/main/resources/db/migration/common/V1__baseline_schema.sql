@@ -0,0 +1,59 @@
+-- Schema as generated by Hibernate (ddl-auto=update) before the migrations were introduced. IF NOT
+-- EXISTS lets databases created that way be baselined onto the migrations without changes; columns and
+-- tables added since then have migrations of their own.
+
+CREATE TABLE IF NOT EXISTS users (
+    id uuid NOT NULL,
+    username varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    email varchar(255) NOT NULL,
+    active boolean NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id uuid NOT NULL,
+    roles varchar(255),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS parking_slots (
+    id uuid NOT NULL,
+    slot_number varchar(255) NOT NULL,
+    status varchar(255) NOT NULL CHECK (status IN ('AVAILABLE', 'OCCUPIED')),
+    booked_by uuid,
+    start_time timestamp(6),
+    end_time timestamp(6),
+    hourly_rate float(53) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    CONSTRAINT pk_parking_slots PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS bookings (
+    id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    slot_id uuid NOT NULL,
+    start_time timestamp(6) NOT NULL,
+    end_time timestamp(6) NOT NULL,
+    status varchar(255) NOT NULL CHECK (status IN ('ACTIVE', 'COMPLETED', 'CANCELLED')),
+    penalty boolean NOT NULL,
+    penalty_amount float(53) NOT NULL,
+    booking_amount float(53) NOT NULL,
+    total_amount float(53) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    CONSTRAINT pk_bookings PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS global_settings (
+    id uuid NOT NULL,
+    default_penalty_amount float(53) NOT NULL,
+    default_hourly_rate float(53) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    CONSTRAINT pk_global_settings PRIMARY KEY (id)
+);
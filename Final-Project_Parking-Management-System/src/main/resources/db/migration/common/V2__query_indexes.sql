@@ -0,0 +1,21 @@
+-- Indexes for the repository queries. SchemaIndexCheck reports any of them missing at startup.
+
+-- Booking history pages, newest first (findByUserId..., countByUserIdGroupByStatus)
+CREATE INDEX IF NOT EXISTS idx_bookings_user_created_at ON bookings (user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_user_status_created_at ON bookings (user_id, status, created_at, id);
+-- Bookings of a slot (findBySlotId)
+CREATE INDEX IF NOT EXISTS idx_bookings_slot_id ON bookings (slot_id);
+-- Active bookings at startup and the overdue sweep (findByStatus, countByStatus, findIdsByStatus)
+CREATE INDEX IF NOT EXISTS idx_bookings_status ON bookings (status);
+
+-- Slot numbers are unique; existsBySlotNumber and findExistingSlotNumbers run on every insert
+DROP INDEX IF EXISTS idx_parking_slots_slot_number;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_parking_slots_slot_number ON parking_slots (slot_number);
+-- Available slots (findByStatus)
+CREATE INDEX IF NOT EXISTS idx_parking_slots_status ON parking_slots (status);
+
+-- Roles of a user, loaded with the user or joined into listings
+CREATE INDEX IF NOT EXISTS idx_user_roles_user_id ON user_roles (user_id);
+
+-- Pricing rules in evaluation order (findAllByOrderByPriorityAscCreatedAtAsc)
+CREATE INDEX IF NOT EXISTS idx_pricing_rules_priority ON pricing_rules (priority, created_at);
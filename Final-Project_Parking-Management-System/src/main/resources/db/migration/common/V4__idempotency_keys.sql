@@ -0,0 +1,14 @@
+-- Responses to requests sent with an Idempotency-Key, replayed when the request is retried.
+-- status_code is null while the first request is still running.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id varchar(64) NOT NULL,
+    request_hash varchar(64) NOT NULL,
+    status_code integer,
+    content_type varchar(255),
+    response_body varchar(8000),
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (id)
+);
+
+-- Expired keys are purged by age
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
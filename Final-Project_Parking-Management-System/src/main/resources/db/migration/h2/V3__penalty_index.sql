@@ -0,0 +1,3 @@
+-- Penalty listing (findByPenaltyTrue, countByPenaltyTrue). H2 has no partial indexes; leading with
+-- penalty gives the same access path.
+CREATE INDEX IF NOT EXISTS idx_bookings_penalty_updated_at ON bookings (penalty, updated_at DESC);
@@ -0,0 +1,3 @@
+-- Penalty listing (findByPenaltyTrue, countByPenaltyTrue): only the small subset of penalised bookings
+-- is indexed, newest first
+CREATE INDEX IF NOT EXISTS idx_bookings_penalty_updated_at ON bookings (updated_at DESC) WHERE penalty = true;
@@ -0,0 +1,98 @@
+package com.parking.benchmarks;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.parking.security.AuthTokenFilter;
+import com.parking.security.JwtUtils;
+import com.parking.security.UserDetailsServiceImpl;
+import com.parking.security.VerifiedTokenCache;
+
+// Requests per second through the JWT authentication filter on a mock request:
+// the previous verify-twice-and-load-user path, the single-parse filter without and
+// with the verified-token cache, and the cached filter with the user active check.
+//
+// Options: -Diterations=200000
+public class AuthFilterBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int iterations = Integer.getInteger("iterations", 200_000);
+
+        System.out.printf("%nJWT authentication filter, %d requests per mode%n", iterations);
+        run("single parse, no cache", iterations, true, "app.jwt.token-cache.max-size=0");
+        run("single parse, token cache", iterations, false);
+        run("token cache + active check", iterations, false, "app.jwt.check-user-active=true");
+    }
+
+    private static void run(String label, int iterations, boolean includeLegacy, String... overrides)
+            throws Exception {
+        ConfigurableApplicationContext context = BenchmarkContext.start(overrides);
+        try {
+            JwtUtils jwtUtils = context.getBean(JwtUtils.class);
+            UserDetailsServiceImpl userDetailsService = context.getBean(UserDetailsServiceImpl.class);
+            AuthTokenFilter filter = context.getBean(AuthTokenFilter.class);
+
+            UserDetails admin = userDetailsService.loadUserByUsername("admin");
+            String token = jwtUtils.generateJwtToken(
+                    new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+
+            if (includeLegacy) {
+                // The previous filter: validate, parse again for the subject, then load the user and roles
+                report("verify twice + user lookup", iterations, () -> {
+                    if (jwtUtils.validateJwtToken(token)) {
+                        UserDetails userDetails = userDetailsService.loadUserByUsername(
+                                jwtUtils.getUserNameFromJwtToken(token));
+                        SecurityContextHolder.getContext().setAuthentication(
+                                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+                    }
+                    SecurityContextHolder.clearContext();
+                });
+            }
+
+            report(label, iterations, () -> {
+                MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings");
+                request.addHeader("Authorization", "Bearer " + token);
+                filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+                if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                    throw new IllegalStateException("Request was not authenticated");
+                }
+                SecurityContextHolder.clearContext();
+            });
+
+            // A revoked user's cached token must stop authenticating immediately
+            context.getBean(VerifiedTokenCache.class).revokeUser("admin");
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings");
+            request.addHeader("Authorization", "Bearer " + token);
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            if (SecurityContextHolder.getContext().getAuthentication() != null) {
+                throw new IllegalStateException("Token of a revoked user was accepted");
+            }
+            System.out.printf("  %-32s %s%n", "", context.getBean(VerifiedTokenCache.class).getStats());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void report(String label, int iterations, Step step) throws Exception {
+        for (int i = 0; i < Math.min(iterations, 20_000); i++) {
+            step.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            step.run();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("  %-32s %10.0f req/s  %8.2f us/req%n", label, iterations / seconds,
+                seconds * 1e6 / iterations);
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+}
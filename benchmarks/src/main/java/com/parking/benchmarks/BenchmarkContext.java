@@ -0,0 +1,72 @@
+package com.parking.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.parking.ParkingManagementSystemApplication;
+
+// Boots the real application (on a random port) against a local database stand-in (in-memory H2 by default).
+// Every default can be overridden with a system property of the same name, e.g.
+// -Dspring.datasource.url=jdbc:postgresql://localhost:5432/parkingdb to benchmark against PostgreSQL.
+// benchmark.db-latency-ms adds a simulated network round trip to every statement (SimulatedDatabaseLatency).
+// benchmark.record-statements captures the executed SQL for QueryPlanCheck (StatementRecorder).
+public final class BenchmarkContext {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("spring.datasource.url",
+                "jdbc:h2:mem:parkingdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        DEFAULTS.put("spring.datasource.username", "sa");
+        DEFAULTS.put("spring.datasource.password", "");
+        DEFAULTS.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        DEFAULTS.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        DEFAULTS.put("spring.jpa.show-sql", "false");
+        DEFAULTS.put("spring.main.banner-mode", "off");
+        DEFAULTS.put("server.port", "0");
+        DEFAULTS.put("logging.level.com.parking", "info");
+        DEFAULTS.put("logging.level.org.springframework.data", "info");
+        DEFAULTS.put("logging.level.org.hibernate.SQL", "warn");
+        DEFAULTS.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "warn");
+    }
+
+    private BenchmarkContext() {
+    }
+
+    // Starts an application instance; overrides are "key=value" pairs applied on top of the defaults
+    public static ConfigurableApplicationContext start(String... overrides) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        DEFAULTS.forEach((key, value) -> properties.put(key, System.getProperty(key, value)));
+        for (String override : overrides) {
+            int separator = override.indexOf('=');
+            properties.put(override.substring(0, separator), override.substring(separator + 1));
+        }
+
+        // Each instance journals into its own scratch directory
+        if (!properties.containsKey("app.journal.dir")) {
+            properties.put("app.journal.dir", System.getProperty("app.journal.dir", journalDirectory()));
+        }
+
+        List<String> args = new ArrayList<>();
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(ParkingManagementSystemApplication.class, SimulatedDatabaseLatency.class,
+                StatementRecorder.class)
+                .run(args.toArray(String[]::new));
+    }
+
+    private static String journalDirectory() {
+        try {
+            return Files.createTempDirectory("parking-journal-").toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.parking.benchmarks;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Bulk test data written straight through JDBC, bypassing the services
+public final class BenchmarkData {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private BenchmarkData() {
+    }
+
+    // Completed bookings spread over two years, a share of them with a penalty
+    public static void seedBookings(JdbcTemplate jdbcTemplate, int bookingCount, double penaltyRatio) {
+        String sql = "INSERT INTO bookings (id, user_id, slot_id, start_time, end_time, status, penalty, "
+                + "penalty_amount, booking_amount, total_amount, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime origin = LocalDateTime.now().minusYears(2);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < bookingCount; i++) {
+            LocalDateTime startTime = origin.plusMinutes(random.nextLong(2 * 365 * 24 * 60));
+            boolean penalty = random.nextDouble() < penaltyRatio;
+            double penaltyAmount = penalty ? 60.0 : 0.0;
+            batch.add(new Object[] {
+                    UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                    Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusHours(2)),
+                    "COMPLETED", penalty, penaltyAmount, 20.0, 20.0 + penaltyAmount,
+                    Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusHours(3)) });
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) jdbcTemplate.batchUpdate(sql, batch);
+    }
+
+    // Active bookings (not yet penalized) on the given slots, with end times spread evenly from endFrom over spreadSeconds
+    public static void seedActiveBookings(JdbcTemplate jdbcTemplate, List<UUID> slotIds, int bookingCount,
+            LocalDateTime endFrom, long spreadSeconds) {
+        String sql = "INSERT INTO bookings (id, user_id, slot_id, start_time, end_time, status, penalty, "
+                + "penalty_amount, booking_amount, total_amount, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < bookingCount; i++) {
+            LocalDateTime endTime = endFrom.plusNanos(spreadSeconds * 1_000_000_000L / bookingCount * i);
+            LocalDateTime startTime = endTime.minusHours(2);
+            batch.add(new Object[] {
+                    UUID.randomUUID(), UUID.randomUUID(), slotIds.get(i % slotIds.size()),
+                    Timestamp.valueOf(startTime), Timestamp.valueOf(endTime),
+                    "ACTIVE", false, 0.0, 20.0, 20.0,
+                    Timestamp.valueOf(startTime), Timestamp.valueOf(startTime) });
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) jdbcTemplate.batchUpdate(sql, batch);
+    }
+
+    // Users with one role each, every hundredth also an admin; the password is a fixed bcrypt hash
+    public static void seedUsers(JdbcTemplate jdbcTemplate, int userCount) {
+        String password = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3QH7D.2lKqLq3eN6rYpI8eW";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> roles = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            UUID id = UUID.randomUUID();
+            users.add(new Object[] { id, "user-" + i, password, "user-" + i + "@load.test", true, now, now });
+            roles.add(new Object[] { id, "ROLE_USER" });
+            if (i % 100 == 0) roles.add(new Object[] { id, "ROLE_ADMIN" });
+            if (users.size() == BATCH_SIZE || i == userCount - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO users (id, username, password, email, active, created_at, "
+                        + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)", users);
+                jdbcTemplate.batchUpdate("INSERT INTO user_roles (user_id, roles) VALUES (?, ?)", roles);
+                users.clear();
+                roles.clear();
+            }
+        }
+    }
+
+    // Slots numbered S-0..S-n, all available
+    public static List<UUID> seedSlots(JdbcTemplate jdbcTemplate, int slotCount) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<UUID> ids = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < slotCount; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            batch.add(new Object[] { id, "S-" + i, "AVAILABLE", 10.0, now, now });
+            if (batch.size() == BATCH_SIZE || i == slotCount - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO parking_slots (id, slot_number, status, hourly_rate, created_at, "
+                        + "updated_at) VALUES (?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+
+    public static boolean isH2(JdbcTemplate jdbcTemplate) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) ->
+                connection.getMetaData().getDatabaseProductName().contains("H2")));
+    }
+}
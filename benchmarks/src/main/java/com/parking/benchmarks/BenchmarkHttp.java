@@ -0,0 +1,50 @@
+package com.parking.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Minimal HTTP client for benchmarks that go through the real controllers and security filters
+public class BenchmarkHttp {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    public BenchmarkHttp(ConfigurableApplicationContext context) {
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    public HttpClient client() {
+        return client;
+    }
+
+    public URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    // Signs in through /api/auth/signin and returns the bearer token
+    public String signIn(String username, String password) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/auth/signin"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Sign in failed: " + response.body());
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    // Signs in as the default admin created by AdminUserInitializer
+    public String signInAsAdmin() throws IOException, InterruptedException {
+        return signIn("admin", "admin123");
+    }
+}
@@ -0,0 +1,26 @@
+package com.parking.benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+// Timing and allocation helpers shared by the scenario benchmarks
+public final class BenchmarkSupport {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private BenchmarkSupport() {
+    }
+
+    // Bytes allocated so far by the calling thread
+    public static long allocatedBytes() {
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    public static double millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e6;
+    }
+
+    public static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,129 @@
+package com.parking.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.repository.ParkingSlotRepository;
+import com.parking.service.BookingService;
+import com.parking.service.ParkingSlotService;
+import com.parking.service.SlotStateStore;
+
+// The slot map and the booking list in JSON, CBOR and Smile: payload size (raw and gzipped) and
+// serialization/deserialization time with the application's own converters, then the same lists
+// fetched through GET /api/parking-slots and GET /api/bookings with each Accept header, decoded to
+// check that every format carries the same values (dates as ISO strings).
+//
+// Options: -Dslots=2000 -Dbookings=5000 -Diterations=200
+public class BinaryFormatsBenchmark {
+
+    private static final Map<String, String> FORMATS = new LinkedHashMap<>();
+
+    static {
+        FORMATS.put("JSON", "application/json");
+        FORMATS.put("CBOR", "application/cbor");
+        FORMATS.put("Smile", "application/x-jackson-smile");
+    }
+
+    public static void main(String[] args) throws Exception {
+        int slots = Integer.getInteger("slots", 2000);
+        int bookings = Integer.getInteger("bookings", 5000);
+        int iterations = Integer.getInteger("iterations", 200);
+
+        ConfigurableApplicationContext context = BenchmarkContext.start("logging.level.com.parking=warn",
+                "app.slots.read-coalescing.enabled=false");
+        try {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            BenchmarkData.seedSlots(jdbcTemplate, slots);
+            BenchmarkData.seedBookings(jdbcTemplate, bookings, 0.1);
+            context.getBean(SlotStateStore.class).load(context.getBean(ParkingSlotRepository.class).findAll());
+
+            // The ObjectMappers of the converters the application negotiates between
+            Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+            List<HttpMessageConverter<?>> converters = context.getBean(RequestMappingHandlerAdapter.class)
+                    .getMessageConverters();
+            FORMATS.forEach((format, mediaType) -> converters.stream()
+                    .filter(converter -> converter instanceof AbstractJackson2HttpMessageConverter)
+                    .map(converter -> (AbstractJackson2HttpMessageConverter) converter)
+                    .filter(converter -> converter.getSupportedMediaTypes().get(0).toString().equals(mediaType))
+                    .findFirst()
+                    .ifPresent(converter -> mappers.put(format, converter.getObjectMapper())));
+
+            Map<String, List<?>> payloads = new LinkedHashMap<>();
+            payloads.put("slots", context.getBean(ParkingSlotService.class).getAllParkingSlots());
+            payloads.put("bookings", context.getBean(BookingService.class).getAllBookings());
+
+            for (Map.Entry<String, List<?>> payload : payloads.entrySet()) {
+                System.out.printf("%n%d %s%n", payload.getValue().size(), payload.getKey());
+                System.out.printf("    %-6s %10s %8s %10s %12s %12s%n", "", "bytes", "vs JSON", "gzipped",
+                        "write (ms)", "read (ms)");
+                long jsonBytes = 0;
+                for (Map.Entry<String, ObjectMapper> mapper : mappers.entrySet()) {
+                    byte[] bytes = mapper.getValue().writeValueAsBytes(payload.getValue());
+                    if (mapper.getKey().equals("JSON")) jsonBytes = bytes.length;
+                    double writeMillis = timeMillis(iterations, () -> mapper.getValue().writeValueAsBytes(payload.getValue()));
+                    double readMillis = timeMillis(iterations, () -> mapper.getValue().readTree(bytes));
+                    System.out.printf("    %-6s %10d %7.0f%% %10d %12.3f %12.3f%n", mapper.getKey(), bytes.length,
+                            100.0 * bytes.length / jsonBytes, gzip(bytes).length, writeMillis, readMillis);
+                }
+            }
+
+            BenchmarkHttp http = new BenchmarkHttp(context);
+            String token = http.signInAsAdmin();
+            for (String path : new String[] { "/api/parking-slots", "/api/bookings" }) {
+                System.out.printf("%nGET %s%n", path);
+                for (Map.Entry<String, String> format : FORMATS.entrySet()) {
+                    HttpRequest request = HttpRequest.newBuilder(http.uri(path))
+                            .header("Authorization", "Bearer " + token)
+                            .header("Accept", format.getValue())
+                            .build();
+                    HttpResponse<byte[]> response = null;
+                    long start = 0;
+                    for (int i = 0; i < iterations / 10 + 1; i++) {
+                        if (i == 1) start = System.nanoTime();
+                        response = http.client().send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    }
+                    JsonNode createdAt = mappers.get(format.getKey()).readTree(response.body()).get(0).get("createdAt");
+                    System.out.printf("    %-6s %3d %-30s %10d bytes %8.2f ms mean   createdAt %s%n", format.getKey(),
+                            response.statusCode(), response.headers().firstValue("Content-Type").orElse(""),
+                            response.body().length, BenchmarkSupport.millisSince(start) / (iterations / 10), createdAt);
+                }
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    // Mean time of the action after as many warmup runs
+    private static double timeMillis(int iterations, Action action) throws IOException {
+        for (int i = 0; i < iterations; i++) action.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) action.run();
+        return BenchmarkSupport.millisSince(start) / iterations;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
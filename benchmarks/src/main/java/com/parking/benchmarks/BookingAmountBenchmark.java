@@ -0,0 +1,88 @@
+package com.parking.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.parking.service.BookingService;
+import com.parking.service.PricingService;
+
+// Amount and penalty calculation as BookingService does them when a booking is created and
+// completed: the current compiled pricing and, for penalties, the global settings snapshot, on
+// the running application with its default rules. PricingEvaluationBenchmark covers the rule
+// evaluation on its own.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingAmountBenchmark {
+
+    private static final int INPUTS = 1024;
+    private static final String[] CLASSES = { null, "COMPACT", "EV" };
+
+    private final LocalDateTime[] starts = new LocalDateTime[INPUTS];
+    private final LocalDateTime[] ends = new LocalDateTime[INPUTS];
+    private final LocalDateTime[] nows = new LocalDateTime[INPUTS];
+    private final String[] slotClasses = new String[INPUTS];
+    private final double[] rates = new double[INPUTS];
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private PricingService pricingService;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("logging.level.root=warn", "logging.level.com.parking=warn");
+        bookingService = context.getBean(BookingService.class);
+        pricingService = context.getBean(PricingService.class);
+
+        Random random = new Random(42);
+        LocalDateTime origin = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < INPUTS; i++) {
+            starts[i] = origin.plusMinutes(random.nextInt(365 * 24 * 60));
+            ends[i] = starts[i].plusMinutes(30 + random.nextInt(8 * 60));
+            // Half of the completions are late
+            nows[i] = ends[i].plusMinutes(random.nextInt(12 * 60) - 6 * 60);
+            slotClasses[i] = CLASSES[random.nextInt(CLASSES.length)];
+            rates[i] = 5 + random.nextInt(20);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public double bookingAmount() {
+        int i = next();
+        return pricingService.getPricing().bookingAmount(slotClasses[i], rates[i], starts[i], ends[i]);
+    }
+
+    @Benchmark
+    public double penaltyAmount() {
+        int i = next();
+        if (!nows[i].isAfter(ends[i])) return 0.0;
+        return bookingService.calculatePenaltyAmount(slotClasses[i], rates[i], ends[i], nows[i]);
+    }
+
+    private int next() {
+        return next = (next + 1) & (INPUTS - 1);
+    }
+}
@@ -0,0 +1,134 @@
+package com.parking.benchmarks;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.parking.model.Booking;
+import com.parking.model.Booking.BookingStatus;
+import com.parking.model.ParkingSlot;
+import com.parking.repository.BookingRepository;
+import com.parking.service.BookingService;
+import com.parking.service.ParkingSlotService;
+
+// Fires bursts of concurrent bookers at a handful of slots through several application
+// instances sharing one database, so the slot claim is decided by the database and not by
+// any single instance's in-memory state. Reports throughput and verifies no slot is double-booked.
+// With leadMinutes > 0 the bookings start in the future, so the overlap check decides instead of the claim.
+//
+// Options: -Dbookers=200 -Dslots=10 -Drounds=20 -Dinstances=2 -DleadMinutes=0
+public class BookingContentionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int bookers = Integer.getInteger("bookers", 200);
+        int slotCount = Integer.getInteger("slots", 10);
+        int rounds = Integer.getInteger("rounds", 20);
+        int instanceCount = Integer.getInteger("instances", 2);
+        int leadMinutes = Integer.getInteger("leadMinutes", 0);
+
+        List<ConfigurableApplicationContext> instances = new ArrayList<>();
+        for (int i = 0; i < instanceCount; i++) {
+            instances.add(BenchmarkContext.start());
+        }
+
+        ParkingSlotService parkingSlotService = instances.get(0).getBean(ParkingSlotService.class);
+        BookingRepository bookingRepository = instances.get(0).getBean(BookingRepository.class);
+        List<UUID> slotIds = new ArrayList<>();
+        String prefix = "BENCH-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        for (int i = 0; i < slotCount; i++) {
+            ParkingSlot slot = new ParkingSlot();
+            slot.setSlotNumber(prefix + i);
+            slot.setHourlyRate(10.0);
+            slotIds.add(parkingSlotService.createParkingSlot(slot).getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(bookers);
+        long totalNanos = 0;
+        int totalWins = 0;
+        int totalConflicts = 0;
+        int totalErrors = 0;
+        int doubleBookings = 0;
+
+        for (int round = 0; round < rounds; round++) {
+            CountDownLatch ready = new CountDownLatch(bookers);
+            CountDownLatch start = new CountDownLatch(1);
+            Map<UUID, BookingService> winners = new ConcurrentHashMap<>();
+            AtomicInteger conflicts = new AtomicInteger();
+            AtomicInteger errors = new AtomicInteger();
+            LocalDateTime startTime = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusMinutes(leadMinutes);
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < bookers; i++) {
+                BookingService bookingService = instances.get(i % instanceCount).getBean(BookingService.class);
+                UUID slotId = slotIds.get(i % slotCount);
+                futures.add(pool.submit(() -> {
+                    Booking booking = new Booking();
+                    booking.setUserId(UUID.randomUUID());
+                    booking.setSlotId(slotId);
+                    booking.setStartTime(startTime);
+                    booking.setEndTime(startTime.plusHours(1));
+                    ready.countDown();
+                    try {
+                        start.await();
+                        winners.put(bookingService.createBooking(booking).getId(), bookingService);
+                    } catch (RuntimeException e) {
+                        if (String.valueOf(e.getMessage()).contains("already")) {
+                            conflicts.incrementAndGet();
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+            }
+
+            ready.await();
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            totalNanos += System.nanoTime() - began;
+
+            // Every slot must hold at most one active booking
+            Map<UUID, Long> activePerSlot = bookingRepository.findByStatus(BookingStatus.ACTIVE).stream()
+                    .filter(b -> slotIds.contains(b.getSlotId()))
+                    .collect(Collectors.groupingBy(Booking::getSlotId, Collectors.counting()));
+            doubleBookings += (int) activePerSlot.values().stream().filter(count -> count > 1).count();
+
+            totalWins += winners.size();
+            totalConflicts += conflicts.get();
+            totalErrors += errors.get();
+            winners.forEach((bookingId, bookingService) -> bookingService.completeBooking(bookingId));
+        }
+        pool.shutdown();
+
+        int attempts = bookers * rounds;
+        double seconds = totalNanos / 1e9;
+        System.out.printf("%nBooking contention: %d bookers x %d rounds on %d slots across %d instances, starting in %d min%n",
+                bookers, rounds, slotCount, instanceCount, leadMinutes);
+        System.out.printf("  attempts          %d%n", attempts);
+        System.out.printf("  bookings won      %d (expected %d)%n", totalWins, slotCount * rounds);
+        System.out.printf("  conflicts         %d%n", totalConflicts);
+        System.out.printf("  errors            %d%n", totalErrors);
+        System.out.printf("  double bookings   %d%n", doubleBookings);
+        System.out.printf("  throughput        %.0f attempts/s (%.1f ms per burst)%n",
+                attempts / seconds, seconds * 1000 / rounds);
+
+        instances.forEach(ConfigurableApplicationContext::close);
+        System.exit(doubleBookings == 0 ? 0 : 1);
+    }
+}
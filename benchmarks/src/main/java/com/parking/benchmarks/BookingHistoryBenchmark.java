@@ -0,0 +1,147 @@
+package com.parking.benchmarks;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.dto.BookingPage;
+import com.parking.model.Booking.BookingStatus;
+import com.parking.repository.BookingRepository;
+import com.parking.service.BookingService;
+
+// One user's booking history as it grows: the previous unbounded findByUserId versus the first
+// keyset page, a page deep into the history and a status-filtered page, alongside other users'
+// bookings so the per-user indexes have something to skip. Finishes with the first page and the
+// counts over HTTP for the signed-in user.
+//
+// Options: -Dhistories=1000,10000,100000 -DotherBookings=200000 -Dsize=20 -Ddepth=100 -Diterations=5
+public class BookingHistoryBenchmark {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final String INSERT = "INSERT INTO bookings (id, user_id, slot_id, start_time, end_time, status, "
+            + "penalty, penalty_amount, booking_amount, total_amount, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public static void main(String[] args) throws Exception {
+        String[] histories = System.getProperty("histories", "1000,10000,100000").split(",");
+        int otherBookings = Integer.getInteger("otherBookings", 200_000);
+        int size = Integer.getInteger("size", 20);
+        int depth = Integer.getInteger("depth", 100);
+        int iterations = Integer.getInteger("iterations", 5);
+
+        ConfigurableApplicationContext context = BenchmarkContext.start("logging.level.com.parking=warn");
+        try {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+            BookingService bookingService = context.getBean(BookingService.class);
+            BenchmarkData.seedBookings(jdbcTemplate, otherBookings, 0.01);
+
+            BenchmarkHttp http = new BenchmarkHttp(context);
+            ObjectMapper objectMapper = new ObjectMapper();
+            http.client().send(HttpRequest.newBuilder(http.uri("/api/auth/signup"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                            "username", "history", "email", "history@load.test", "password", "history123"))))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> signIn = http.client().send(HttpRequest.newBuilder(http.uri("/api/auth/signin"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                            "username", "history", "password", "history123"))))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            JsonNode user = objectMapper.readTree(signIn.body());
+            String token = user.get("token").asText();
+            UUID userId = UUID.fromString(user.get("id").asText());
+
+            int seeded = 0;
+            for (String history : histories) {
+                int total = Integer.parseInt(history.trim());
+                seedHistory(jdbcTemplate, userId, total - seeded);
+                seeded = total;
+
+                // Walk to the deep page once so every timed run reads the same page
+                String deepCursor = null;
+                for (int page = 0; page < depth && (page == 0 || deepCursor != null); page++) {
+                    deepCursor = bookingService.getBookingsByUserId(userId, null, deepCursor, size).getNextCursor();
+                }
+                String cursor = deepCursor;
+
+                System.out.printf("%n%d bookings for the user, %d for others%n", total, otherBookings);
+                for (int i = 0; i < iterations; i++) {
+                    run("findByUserId (unbounded)", () -> bookingRepository.findByUserId(userId).size());
+                    run("first page", () -> bookingService.getBookingsByUserId(userId, null, null, size)
+                            .getBookings().size());
+                    run("page " + depth, () -> cursor == null ? 0
+                            : bookingService.getBookingsByUserId(userId, null, cursor, size).getBookings().size());
+                    run("first CANCELLED page", () -> bookingService.getBookingsByUserId(userId,
+                            BookingStatus.CANCELLED, null, size).getBookings().size());
+                    run("status counts", () -> (int) bookingService.countBookingsByUserId(userId).values().stream()
+                            .mapToLong(Long::longValue).sum());
+                }
+            }
+
+            for (String path : List.of("/api/bookings/user/" + userId + "?size=" + size,
+                    "/api/bookings/user/" + userId + "/counts")) {
+                long start = System.nanoTime();
+                HttpResponse<String> response = http.client().send(HttpRequest.newBuilder(http.uri(path))
+                        .header("Authorization", "Bearer " + token).GET().build(), HttpResponse.BodyHandlers.ofString());
+                double millis = BenchmarkSupport.millisSince(start);
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Unexpected response from " + path + ": " + response.statusCode());
+                }
+                System.out.printf("  GET %-60s %8.1f ms %10s%n", path, millis,
+                        BenchmarkSupport.megabytes(response.body().length()));
+            }
+            if (BenchmarkData.isH2(jdbcTemplate)) {
+                BookingPage page = bookingService.getBookingsByUserId(userId, null, null, size);
+                System.out.println("\nPlan of the next page query:");
+                jdbcTemplate.queryForList("EXPLAIN SELECT * FROM bookings WHERE user_id = ? AND created_at <= ? "
+                        + "AND (created_at < ? OR id < ?) ORDER BY created_at DESC, id DESC LIMIT ?", String.class,
+                        userId, page.getBookings().get(size - 1).getCreatedAt(),
+                        page.getBookings().get(size - 1).getCreatedAt(), page.getBookings().get(size - 1).getId(),
+                        size + 1).forEach(System.out::println);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void run(String label, Supplier<Integer> query) {
+        long start = System.nanoTime();
+        int rows = query.get();
+        System.out.printf("  %-26s %8d rows %9.2f ms%n", label, rows, BenchmarkSupport.millisSince(start));
+    }
+
+    // The user's bookings over the last two years: mostly completed, some cancelled, a few still active
+    private static void seedHistory(JdbcTemplate jdbcTemplate, UUID userId, int bookingCount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime origin = LocalDateTime.now().minusYears(2);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < bookingCount; i++) {
+            LocalDateTime startTime = origin.plusMinutes(random.nextLong(2 * 365 * 24 * 60));
+            double roll = random.nextDouble();
+            String status = roll < 0.1 ? "CANCELLED" : roll < 0.11 ? "ACTIVE" : "COMPLETED";
+            batch.add(new Object[] {
+                    UUID.randomUUID(), userId, UUID.randomUUID(),
+                    Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusHours(2)),
+                    status, false, 0.0, 20.0, 20.0,
+                    Timestamp.valueOf(startTime), Timestamp.valueOf(startTime.plusHours(2)) });
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) jdbcTemplate.batchUpdate(INSERT, batch);
+    }
+}
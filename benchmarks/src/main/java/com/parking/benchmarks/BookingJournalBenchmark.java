@@ -0,0 +1,190 @@
+package com.parking.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.parking.model.Booking.BookingStatus;
+import com.parking.model.ParkingSlot;
+import com.parking.repository.BookingRepository;
+import com.parking.service.BookingJournal;
+import com.parking.service.BookingJournal.ActiveBooking;
+import com.parking.service.BookingJournal.EventType;
+import com.parking.service.ParkingSlotService;
+import com.parking.util.BookingIndexInitializer;
+
+// Three parts: events per second appended to the booking journal on local disk (pages forced once
+// per flush interval, then every append waiting for its sync with one and many writers); the startup
+// load of the active bookings read from the bookings table versus replayed from the journal and
+// confirmed against the table's (id, penalty) pairs; and a checkpoint of a journal of many short-lived
+// bookings, with the segments on disk and the replay time before and after.
+//
+// Options: -Devents=1000000 -DsyncEvents=20000 -Dthreads=8 -DsyncThreads=64 -Dbookings=200000 -Diterations=3
+//          -DchurnEvents=2000000
+public class BookingJournalBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int events = Integer.getInteger("events", 1_000_000);
+        int syncEvents = Integer.getInteger("syncEvents", 20_000);
+        int threads = Integer.getInteger("threads", 8);
+        int syncThreads = Integer.getInteger("syncThreads", 64);
+        int bookingCount = Integer.getInteger("bookings", 200_000);
+        int iterations = Integer.getInteger("iterations", 3);
+        int churnEvents = Integer.getInteger("churnEvents", 2_000_000);
+
+        System.out.printf("%nBooking journal appends (%d-byte records)%n", 88);
+        append("interval flush, 1 writer", false, 1, events);
+        append("interval flush, " + threads + " writers", false, threads, events);
+        append("sync, 1 writer", true, 1, syncEvents / 10);
+        append("sync, " + syncThreads + " writers", true, syncThreads, syncEvents);
+        recovery(bookingCount, iterations);
+        checkpoint(churnEvents);
+    }
+
+    private static void append(String label, boolean sync, int threads, int events) throws Exception {
+        Path dir = Files.createTempDirectory("parking-journal-");
+        BookingJournal journal = journal(dir, sync);
+        LocalDateTime now = LocalDateTime.now();
+        UUID slotId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < events / threads; i++) {
+                    journal.append(EventType.CREATED, UUID.randomUUID(), slotId, userId, now, now.plusHours(2), 20.0);
+                }
+                done.countDown();
+            });
+            writer.start();
+        }
+        done.await();
+        journal.close();
+        double millis = BenchmarkSupport.millisSince(start);
+        int written = events / threads * threads;
+        System.out.printf("  %-28s %9d events %9.1f ms %12.0f events/s%n", label, written, millis,
+                written / (millis / 1000));
+    }
+
+    private static void recovery(int bookingCount, int iterations) throws Exception {
+        ConfigurableApplicationContext context = BenchmarkContext.start("logging.level.com.parking=warn");
+        try {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+            BookingJournal journal = context.getBean(BookingJournal.class);
+            List<ParkingSlot> slots = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                ParkingSlot slot = new ParkingSlot();
+                slot.setSlotNumber("J-" + i);
+                slots.add(slot);
+            }
+            List<UUID> slotIds = context.getBean(ParkingSlotService.class).createParkingSlots(slots).getCreated()
+                    .stream().map(ParkingSlot::getId).toList();
+            BenchmarkData.seedActiveBookings(jdbcTemplate, slotIds, bookingCount, LocalDateTime.now().plusDays(1),
+                    30L * 24 * 3600);
+            // The journal does not know the seeded bookings, so this load reads the table and writes a snapshot
+            context.getBean(BookingIndexInitializer.class).run();
+
+            System.out.printf("%nActive booking recovery, %d active bookings%n", bookingCount);
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                List<ActiveBooking> fromTable = bookingRepository.findByStatus(BookingStatus.ACTIVE).stream()
+                        .map(ActiveBooking::of).toList();
+                double tableMillis = BenchmarkSupport.millisSince(start);
+
+                start = System.nanoTime();
+                List<ActiveBooking> fromJournal = journal.recoverActiveBookings().orElseThrow();
+                double journalMillis = BenchmarkSupport.millisSince(start);
+
+                start = System.nanoTime();
+                int confirmed = bookingRepository.findIdAndPenaltyByStatus(BookingStatus.ACTIVE).size();
+                double confirmMillis = BenchmarkSupport.millisSince(start);
+
+                // Times must come back exactly, or releasing a replayed reservation would miss it
+                if (!new HashSet<>(fromTable).equals(new HashSet<>(fromJournal)) || confirmed != fromTable.size()) {
+                    throw new IllegalStateException("Journal replayed " + fromJournal.size() + " of "
+                            + fromTable.size() + " active bookings, or with different values");
+                }
+                System.out.printf("  table rows %8.1f ms   journal replay %8.1f ms + (id, penalty) check %8.1f ms   (%.1fx)%n",
+                        tableMillis, journalMillis, confirmMillis, tableMillis / (journalMillis + confirmMillis));
+            }
+
+            long start = System.nanoTime();
+            context.getBean(BookingIndexInitializer.class).run();
+            System.out.printf("  full index rebuild from the journal %.1f ms%n", BenchmarkSupport.millisSince(start));
+        } finally {
+            context.close();
+        }
+    }
+
+    // Bookings created and completed in turn, a thousand active at any time, in 16 MB segments
+    private static void checkpoint(int events) throws Exception {
+        Path dir = Files.createTempDirectory("parking-journal-");
+        BookingJournal journal = journal(dir, false, 16);
+        journal.writeSnapshot(List.of());
+        LocalDateTime now = LocalDateTime.now();
+        UUID slotId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        List<UUID> open = new ArrayList<>();
+        for (int i = 0; i < events / 2; i++) {
+            UUID bookingId = UUID.randomUUID();
+            journal.append(EventType.CREATED, bookingId, slotId, userId, now, now.plusHours(2), 20.0);
+            open.add(bookingId);
+            if (open.size() > 1000) {
+                journal.append(EventType.COMPLETED, open.remove(0), slotId, userId, now, now.plusHours(2), 20.0);
+            }
+        }
+
+        System.out.printf("%nCheckpoint after %d events%n", events);
+        long start = System.nanoTime();
+        int active = journal.recoverActiveBookings().orElseThrow().size();
+        System.out.printf("  before  %3d segments %9s   replay %8.1f ms (%d active)%n", segments(dir),
+                BenchmarkSupport.megabytes(diskUsage(dir)), BenchmarkSupport.millisSince(start), active);
+        start = System.nanoTime();
+        journal.checkpoint();
+        double checkpointMillis = BenchmarkSupport.millisSince(start);
+        start = System.nanoTime();
+        active = journal.recoverActiveBookings().orElseThrow().size();
+        System.out.printf("  after   %3d segments %9s   replay %8.1f ms (%d active), checkpoint took %.1f ms%n",
+                segments(dir), BenchmarkSupport.megabytes(diskUsage(dir)), BenchmarkSupport.millisSince(start), active,
+                checkpointMillis);
+        journal.close();
+    }
+
+    private static long segments(Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+
+    private static long diskUsage(Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+
+    private static BookingJournal journal(Path dir, boolean sync) throws Exception {
+        return journal(dir, sync, 64);
+    }
+
+    private static BookingJournal journal(Path dir, boolean sync, int segmentSizeMb) throws Exception {
+        BookingJournal journal = new BookingJournal();
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "directory", dir.toString());
+        ReflectionTestUtils.setField(journal, "segmentSizeMb", segmentSizeMb);
+        ReflectionTestUtils.setField(journal, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(journal, "sync", sync);
+        journal.open();
+        return journal;
+    }
+}
@@ -0,0 +1,92 @@
+package com.parking.benchmarks;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.parking.repository.ParkingSlotRepository;
+import com.parking.service.ParkingSlotService;
+import com.parking.service.SlotStateStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// A client polling the slot endpoints, once re-downloading every response and once revalidating
+// with the ETag of its last response (If-None-Match). A slot rate changes every changeEvery polls, so
+// some revalidations must return the new list. Reports statuses, bytes received, parking_slots
+// statements and latency per endpoint.
+//
+// Options: -Dslots=1000 -Dpolls=2000 -DchangeEvery=50
+public class ConditionalGetBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int slots = Integer.getInteger("slots", 1000);
+        int polls = Integer.getInteger("polls", 2000);
+        int changeEvery = Integer.getInteger("changeEvery", 50);
+
+        ConfigurableApplicationContext context = BenchmarkContext.start("logging.level.com.parking=warn");
+        try {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            ParkingSlotService parkingSlotService = context.getBean(ParkingSlotService.class);
+            // Seeded behind the service's back, so load the store again and refresh the lists
+            UUID slotId = BenchmarkData.seedSlots(jdbcTemplate, slots).get(0);
+            context.getBean(SlotStateStore.class).load(context.getBean(ParkingSlotRepository.class).findAll());
+            parkingSlotService.updateParkingSlotRate(slotId, 10.0);
+
+            BenchmarkHttp http = new BenchmarkHttp(context);
+            String token = http.signInAsAdmin();
+
+            System.out.printf("%n%d slots, %d polls per endpoint, a rate change every %d polls%n", slots, polls,
+                    changeEvery);
+            for (String path : new String[] { "/api/parking-slots", "/api/parking-slots/available",
+                    "/api/parking-slots/" + slotId }) {
+                System.out.printf("%n  GET %s%n", path);
+                run("full download", false, path, http, token, context, parkingSlotService, slotId, polls, changeEvery);
+                run("If-None-Match", true, path, http, token, context, parkingSlotService, slotId, polls, changeEvery);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void run(String label, boolean conditional, String path, BenchmarkHttp http, String token,
+            ConfigurableApplicationContext context, ParkingSlotService parkingSlotService, UUID slotId, int polls,
+            int changeEvery) throws Exception {
+        Map<Integer, Integer> statuses = new TreeMap<>();
+        long bytes = 0;
+        double millis = 0;
+        String eTag = null;
+        long statements = 0;
+        double rate = 10.0;
+        for (int i = 0; i < polls; i++) {
+            if (i > 0 && i % changeEvery == 0) parkingSlotService.updateParkingSlotRate(slotId, rate += 0.5);
+            HttpRequest.Builder request = HttpRequest.newBuilder(http.uri(path)).header("Authorization", "Bearer " + token);
+            if (conditional && eTag != null) request.header("If-None-Match", eTag);
+            long before = slotStatements(context);
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = http.client().send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            millis += BenchmarkSupport.millisSince(start);
+            statements += slotStatements(context) - before;
+            statuses.merge(response.statusCode(), 1, Integer::sum);
+            bytes += response.body().length;
+            eTag = response.headers().firstValue("ETag").orElse(eTag);
+        }
+        System.out.printf("    %-14s %8.3f ms mean  %10s received  %5d parking_slots statements  %s%n", label,
+                millis / polls, BenchmarkSupport.megabytes(bytes), statements, statuses);
+    }
+
+    // Statements run against parking_slots so far
+    private static long slotStatements(ConfigurableApplicationContext context) {
+        long count = 0;
+        for (Timer timer : context.getBean(MeterRegistry.class).find("parking.db.statements").timers()) {
+            String statement = timer.getId().getTag("statement");
+            if (statement != null && statement.endsWith(" parking_slots")) count += timer.count();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,43 @@
+package com.parking.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the hot-path JMH benchmarks (JWT, booking amounts, JSON serialization, token filter) and
+// writes the results as JSON, one timestamped file per run, so runs can be compared over time
+// (e.g. with jmh.morethan.io). Arguments are passed on to JMH, e.g. -f 3 or a narrower regex.
+//
+// Options: -Dresults=results/jmh (output directory)
+public class HotPathBenchmarks {
+
+    static final String INCLUDE = "com\\.parking\\.benchmarks\\.(JwtBenchmark|BookingAmountBenchmark"
+            + "|JsonSerializationBenchmark|TokenFilterBenchmark)\\.";
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Path.of(System.getProperty("results", "results/jmh"));
+        Files.createDirectories(directory);
+        Path output = directory.resolve("hot-paths-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(INCLUDE);
+        }
+        Options options = builder
+                .jvmArgsAppend("-Duser.timezone=UTC")
+                .resultFormat(ResultFormatType.JSON)
+                .result(output.toString())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,160 @@
+package com.parking.benchmarks;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.model.ParkingSlot;
+import com.parking.service.ParkingSlotService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Clients on a flaky network: every POST /api/bookings and PUT /api/bookings/complete/{id} is sent
+// again `retries` times as if the response had been lost, alternating between two instances that share
+// one database. Without a key each retry is a new slot claim or completion attempt; with an
+// Idempotency-Key it is replayed from memory (same instance) or from idempotency_keys (the other one).
+// Reports the retry outcomes, the statements they ran against bookings/parking_slots and their latency.
+//
+// Options: -Dbookings=300 -Dretries=3
+public class IdempotencyBenchmark {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int bookingCount = Integer.getInteger("bookings", 300);
+        int retries = Integer.getInteger("retries", 3);
+
+        List<ConfigurableApplicationContext> instances = List.of(BenchmarkContext.start(), BenchmarkContext.start());
+        try {
+            List<BenchmarkHttp> http = instances.stream().map(BenchmarkHttp::new).toList();
+            ParkingSlotService parkingSlotService = instances.get(0).getBean(ParkingSlotService.class);
+            String prefix = "IDEM-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+            List<UUID> slotIds = new ArrayList<>();
+            for (int i = 0; i < bookingCount; i++) {
+                ParkingSlot slot = new ParkingSlot();
+                slot.setSlotNumber(prefix + i);
+                slot.setHourlyRate(10.0);
+                slotIds.add(parkingSlotService.createParkingSlot(slot).getId());
+            }
+
+            String body = objectMapper.writeValueAsString(Map.of("username", "flaky", "email", "flaky@load.test",
+                    "password", "flaky123"));
+            http.get(0).client().send(HttpRequest.newBuilder(http.get(0).uri("/api/auth/signup"))
+                    .header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            // Every instance signs tokens with its own key, so the client signs in to each
+            List<String> tokens = new ArrayList<>();
+            String userId = null;
+            for (BenchmarkHttp instanceHttp : http) {
+                JsonNode signIn = objectMapper.readTree(instanceHttp.client().send(HttpRequest.newBuilder(
+                        instanceHttp.uri("/api/auth/signin")).header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                                Map.of("username", "flaky", "password", "flaky123")))).build(),
+                        HttpResponse.BodyHandlers.ofString()).body());
+                tokens.add(signIn.get("token").asText());
+                userId = signIn.get("id").asText();
+            }
+
+            System.out.printf("%n%d bookings created and completed, each request sent %d more times across 2 instances%n",
+                    bookingCount, retries);
+            // Each run books the slots for its own hour so the two runs do not collide
+            LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            run("without key", false, http, instances, tokens, userId, slotIds, hour, retries);
+            run("Idempotency-Key", true, http, instances, tokens, userId, slotIds, hour.plusHours(2), retries);
+        } finally {
+            instances.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+
+    private static void run(String label, boolean withKey, List<BenchmarkHttp> http,
+            List<ConfigurableApplicationContext> instances, List<String> tokens, String userId, List<UUID> slotIds,
+            LocalDateTime startTime, int retries) throws Exception {
+        Map<String, Integer> outcomes = new TreeMap<>();
+        double firstMillis = 0;
+        double sameInstanceMillis = 0;
+        double otherInstanceMillis = 0;
+        int sameInstanceCount = 0;
+        int otherInstanceCount = 0;
+        long statementsBefore = tableStatements(instances);
+        long retryStatements = 0;
+
+        for (UUID slotId : slotIds) {
+            String booking = objectMapper.writeValueAsString(Map.of("userId", userId, "slotId", slotId.toString(),
+                    "startTime", startTime.toString(), "endTime", startTime.plusHours(1).toString()));
+            String bookingId = null;
+            for (String step : List.of("create", "complete")) {
+                String key = UUID.randomUUID().toString();
+                for (int attempt = 0; attempt <= retries; attempt++) {
+                    int instance = attempt % 2;
+                    HttpRequest.Builder request = step.equals("create")
+                            ? HttpRequest.newBuilder(http.get(instance).uri("/api/bookings"))
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString(booking))
+                            : HttpRequest.newBuilder(http.get(instance).uri("/api/bookings/complete/" + bookingId))
+                                    .PUT(HttpRequest.BodyPublishers.noBody());
+                    request.header("Authorization", "Bearer " + tokens.get(instance));
+                    if (withKey) request.header("Idempotency-Key", key);
+                    long before = attempt == 0 ? 0 : tableStatements(instances);
+                    long start = System.nanoTime();
+                    HttpResponse<String> response = http.get(instance).client().send(request.build(),
+                            HttpResponse.BodyHandlers.ofString());
+                    double millis = BenchmarkSupport.millisSince(start);
+                    if (attempt == 0) {
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException(step + " failed: " + response.body());
+                        }
+                        if (step.equals("create")) bookingId = objectMapper.readTree(response.body()).get("id").asText();
+                        firstMillis += millis;
+                        continue;
+                    }
+                    retryStatements += tableStatements(instances) - before;
+                    String outcome = step + " retry " + response.statusCode()
+                            + (response.headers().firstValue("Idempotent-Replayed").isPresent() ? " (replayed)" : "");
+                    outcomes.merge(outcome, 1, Integer::sum);
+                    if (instance == 0) {
+                        sameInstanceMillis += millis;
+                        sameInstanceCount++;
+                    } else {
+                        otherInstanceMillis += millis;
+                        otherInstanceCount++;
+                    }
+                }
+            }
+        }
+
+        int firstCount = slotIds.size() * 2;
+        System.out.printf("%n  %s%n", label);
+        System.out.printf("    first requests                %8.2f ms mean%n", firstMillis / firstCount);
+        System.out.printf("    retries, same instance        %8.2f ms mean%n", sameInstanceMillis / Math.max(1, sameInstanceCount));
+        System.out.printf("    retries, other instance       %8.2f ms mean%n", otherInstanceMillis / Math.max(1, otherInstanceCount));
+        System.out.printf("    bookings/parking_slots statements: %d in total, %d by retries (%.2f per retry)%n",
+                tableStatements(instances) - statementsBefore, retryStatements,
+                (double) retryStatements / (sameInstanceCount + otherInstanceCount));
+        outcomes.forEach((outcome, count) -> System.out.printf("    %-30s %6d%n", outcome, count));
+    }
+
+    // Statements run against bookings and parking_slots by both instances so far
+    private static long tableStatements(List<ConfigurableApplicationContext> instances) {
+        long count = 0;
+        for (ConfigurableApplicationContext instance : instances) {
+            for (Timer timer : instance.getBean(MeterRegistry.class).find("parking.db.statements").timers()) {
+                String statement = timer.getId().getTag("statement");
+                if (statement != null && (statement.endsWith(" bookings") || statement.endsWith(" parking_slots"))) {
+                    count += timer.count();
+                }
+            }
+        }
+        return count;
+    }
+}
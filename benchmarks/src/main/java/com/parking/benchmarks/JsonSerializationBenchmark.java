@@ -0,0 +1,78 @@
+package com.parking.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.model.Booking;
+import com.parking.model.ParkingSlot;
+
+// Jackson serialization of the Booking and ParkingSlot lists the listing endpoints return, with the
+// ObjectMapper configuration Spring Boot gives the application (java.time support, ISO dates).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({ "10", "1000" })
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Booking> bookings;
+    private List<ParkingSlot> slots;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 9, 0);
+        bookings = new ArrayList<>();
+        slots = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Booking booking = new Booking();
+            booking.setId(UUID.randomUUID());
+            booking.setUserId(UUID.randomUUID());
+            booking.setSlotId(UUID.randomUUID());
+            booking.setStartTime(now.plusMinutes(i));
+            booking.setEndTime(now.plusMinutes(i + 120));
+            booking.setBookingAmount(20.0);
+            booking.setTotalAmount(20.0);
+            bookings.add(booking);
+
+            ParkingSlot slot = new ParkingSlot();
+            slot.setId(UUID.randomUUID());
+            slot.setSlotNumber("A-" + i);
+            slot.setHourlyRate(10.0);
+            slot.setSlotClass(i % 4 == 0 ? "EV" : null);
+            slots.add(slot);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeBookings() throws Exception {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] serializeParkingSlots() throws Exception {
+        return objectMapper.writeValueAsBytes(slots);
+    }
+}
@@ -0,0 +1,80 @@
+package com.parking.benchmarks;
+
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Time to first byte and total time of GET /api/bookings as one JSON array versus the
+// streamed NDJSON export, over HTTP against the running application.
+//
+// Options: -Dbookings=200000 -Diterations=3
+public class NdjsonExportBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int bookingCount = Integer.getInteger("bookings", 200_000);
+        int iterations = Integer.getInteger("iterations", 3);
+
+        ConfigurableApplicationContext context = BenchmarkContext.start();
+        try {
+            BenchmarkData.seedBookings(context.getBean(JdbcTemplate.class), bookingCount, 0.01);
+            BenchmarkHttp http = new BenchmarkHttp(context);
+            String token = http.signInAsAdmin();
+
+            // Clients that do not ask for NDJSON must keep getting the JSON array
+            HttpResponse<Void> anyType = http.client().send(HttpRequest.newBuilder(http.uri("/api/bookings"))
+                    .header("Authorization", "Bearer " + token).header("Accept", "*/*").GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            System.out.printf("%nAccept */* is answered with %s%n", anyType.headers().firstValue("Content-Type").orElse("?"));
+
+            // Warm up both representations
+            fetch(http, token, "application/json");
+            fetch(http, token, "application/x-ndjson");
+
+            System.out.printf("Bookings export: %d bookings%n", bookingCount);
+            for (String accept : new String[] { "application/json", "application/x-ndjson" }) {
+                double firstByte = 0;
+                double total = 0;
+                long bytes = 0;
+                for (int i = 0; i < iterations; i++) {
+                    Result result = fetch(http, token, accept);
+                    firstByte += result.firstByteMillis;
+                    total += result.totalMillis;
+                    bytes = result.bytes;
+                }
+                System.out.printf("  %-22s first byte %8.1f ms   total %8.1f ms   %s%n", accept,
+                        firstByte / iterations, total / iterations, BenchmarkSupport.megabytes(bytes));
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result fetch(BenchmarkHttp http, String token, String accept) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(http.uri("/api/bookings"))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", accept)
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = http.client().send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("GET /api/bookings returned " + response.statusCode());
+            }
+            byte[] buffer = new byte[64 * 1024];
+            int read = body.read(buffer);
+            double firstByte = BenchmarkSupport.millisSince(start);
+            long bytes = Math.max(read, 0);
+            while ((read = body.read(buffer)) >= 0) {
+                bytes += read;
+            }
+            return new Result(firstByte, BenchmarkSupport.millisSince(start), bytes);
+        }
+    }
+
+    private record Result(double firstByteMillis, double totalMillis, long bytes) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.parking.benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.parking.model.ParkingSlot;
+import com.parking.repository.BookingRepository;
+import com.parking.service.BookingExpiryWheel;
+import com.parking.service.ParkingSlotService;
+import com.parking.util.BookingIndexInitializer;
+
+// Two parts: the expiry wheel on its own (schedule, cancel and a simulated day of one-second
+// sweeps over many active bookings), then the running application flagging seeded active
+// bookings as they pass their end time, reporting how far the last penalty lagged behind.
+//
+// Options: -DwheelBookings=500000 -Dbookings=100000 -DspreadSeconds=60
+public class OverdueSweepBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int wheelBookings = Integer.getInteger("wheelBookings", 500_000);
+        int bookingCount = Integer.getInteger("bookings", 100_000);
+        int spreadSeconds = Integer.getInteger("spreadSeconds", 60);
+
+        wheel(wheelBookings);
+        wheel(wheelBookings);
+        sweep(bookingCount, spreadSeconds);
+    }
+
+    private static void wheel(int bookingCount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime now = LocalDateTime.now();
+        BookingExpiryWheel wheel = new BookingExpiryWheel();
+        List<UUID> ids = new ArrayList<>(bookingCount);
+        for (int i = 0; i < bookingCount; i++) {
+            ids.add(UUID.randomUUID());
+        }
+
+        long start = System.nanoTime();
+        for (UUID id : ids) {
+            wheel.schedule(id, id, now.plusSeconds(1 + random.nextLong(24 * 3600)), 20.0, false);
+        }
+        double scheduleMillis = BenchmarkSupport.millisSince(start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < bookingCount; i += 10) {
+            wheel.cancel(ids.get(i));
+        }
+        double cancelMillis = BenchmarkSupport.millisSince(start);
+
+        start = System.nanoTime();
+        long fired = 0;
+        for (int second = 1; second <= 24 * 3600 + 1; second++) {
+            List<BookingExpiryWheel.Expiry> due = wheel.advance(now.plusSeconds(second));
+            due.forEach(wheel::release);
+            fired += due.size();
+        }
+        double sweepMillis = BenchmarkSupport.millisSince(start);
+
+        System.out.printf("%nExpiry wheel, %d active bookings over 24 h%n", bookingCount);
+        System.out.printf("  schedule   %8.1f ms  %6.0f ns/booking%n", scheduleMillis, scheduleMillis * 1e6 / bookingCount);
+        System.out.printf("  cancel 10%% %8.1f ms  %6.0f ns/booking%n", cancelMillis, cancelMillis * 1e6 / (bookingCount / 10));
+        System.out.printf("  86401 sweeps %6.1f ms  %6.0f ns/booking fired (%d fired, %d left)%n", sweepMillis,
+                sweepMillis * 1e6 / Math.max(fired, 1), fired, wheel.size());
+    }
+
+    private static void sweep(int bookingCount, int spreadSeconds) throws Exception {
+        ConfigurableApplicationContext context = BenchmarkContext.start("logging.level.com.parking=warn");
+        try {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+            List<ParkingSlot> slots = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                ParkingSlot slot = new ParkingSlot();
+                slot.setSlotNumber("O-" + i);
+                slots.add(slot);
+            }
+            List<UUID> slotIds = context.getBean(ParkingSlotService.class).createParkingSlots(slots).getCreated()
+                    .stream().map(ParkingSlot::getId).toList();
+
+            // Leave time for seeding so no booking is overdue before the wheel is loaded
+            LocalDateTime endFrom = LocalDateTime.now().plusSeconds(30);
+            BenchmarkData.seedActiveBookings(jdbcTemplate, slotIds, bookingCount, endFrom, spreadSeconds);
+            context.getBean(BookingIndexInitializer.class).run();
+
+            LocalDateTime lastEnd = endFrom.plusSeconds(spreadSeconds);
+            long flagged;
+            while ((flagged = bookingRepository.countByPenaltyTrue()) < bookingCount) {
+                if (LocalDateTime.now().isAfter(lastEnd.plusSeconds(60))) {
+                    throw new IllegalStateException("Only " + flagged + " of " + bookingCount + " bookings flagged");
+                }
+                Thread.sleep(20);
+            }
+            double lagMillis = Duration.between(lastEnd, LocalDateTime.now()).toNanos() / 1e6;
+            System.out.printf("%nOverdue sweep, %d active bookings ending over %d s%n", bookingCount, spreadSeconds);
+            System.out.printf("  all flagged %.0f ms after the last end time (%.0f bookings/s)%n",
+                    lagMillis, bookingCount / (double) spreadSeconds);
+        } finally {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.parking.benchmarks;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.model.ParkingSlot;
+import com.parking.model.User;
+import com.parking.repository.UserRepository;
+import com.parking.service.ParkingSlotService;
+
+// Replays a compressed parking day against the real controllers. Drivers arrive following an
+// hourly arrival curve (open loop, Poisson arrivals, so a slow server does not slow the load down);
+// each one signs up or signs in, looks up the free slots, books one, and after a stay of a few
+// simulated hours checks their bookings and completes (on time or overstaying into a penalty) or
+// cancels. The day is repeated at growing multiples of the arrival rate until an endpoint's p99
+// exceeds the latency objective or errors exceed 1%; the last passing day gives the maximum
+// sustainable throughput. Latencies are recorded per endpoint in HdrHistograms.
+//
+// Options: -DdaySeconds=120 -DpeakArrivals=4 -Dscales=1,2,4,8 -Dslots=300 -Dusers=500
+//          -DnewUserRatio=0.1 -DcancelRatio=0.1 -DoverstayRatio=0.15 -DsloMillis=1000
+//          -Dcurve=<24 comma-separated hourly weights, peak 1.0>
+public class ParkingDayBenchmark {
+
+    private static final double[] DEFAULT_CURVE = {
+            0.05, 0.03, 0.02, 0.02, 0.03, 0.10, 0.30, 0.70, 1.00, 0.90, 0.70, 0.60,
+            0.60, 0.60, 0.60, 0.70, 0.90, 1.00, 0.80, 0.50, 0.30, 0.20, 0.10, 0.07 };
+    private static final String PASSWORD = "password123";
+
+    private static final String SIGNUP = "POST /api/auth/signup";
+    private static final String SIGNIN = "POST /api/auth/signin";
+    private static final String AVAILABLE = "GET /api/parking-slots/available";
+    private static final String BOOK = "POST /api/bookings";
+    private static final String USER_BOOKINGS = "GET /api/bookings/user/{id}";
+    private static final String COMPLETE = "PUT /api/bookings/complete/{id}";
+    private static final String CANCEL = "PUT /api/bookings/cancel/{id}";
+    private static final List<String> ENDPOINTS = List.of(SIGNUP, SIGNIN, AVAILABLE, BOOK, USER_BOOKINGS,
+            COMPLETE, CANCEL);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10)).build();
+    private final BenchmarkHttp http;
+    private final List<String> usernames;
+    private final double[] curve;
+    private final double newUserRatio;
+    private final double cancelRatio;
+    private final double overstayRatio;
+    private final long sloMillis;
+    private final AtomicInteger signups = new AtomicInteger();
+
+    private ParkingDayBenchmark(BenchmarkHttp http, List<String> usernames, double[] curve, double newUserRatio,
+            double cancelRatio, double overstayRatio, long sloMillis) {
+        this.http = http;
+        this.usernames = usernames;
+        this.curve = curve;
+        this.newUserRatio = newUserRatio;
+        this.cancelRatio = cancelRatio;
+        this.overstayRatio = overstayRatio;
+        this.sloMillis = sloMillis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int daySeconds = Integer.getInteger("daySeconds", 120);
+        double peakArrivals = Double.parseDouble(System.getProperty("peakArrivals", "4"));
+        int[] scales = Arrays.stream(System.getProperty("scales", "1,2,4,8").split(","))
+                .mapToInt(scale -> Integer.parseInt(scale.trim())).toArray();
+        int slotCount = Integer.getInteger("slots", 300);
+        int userCount = Integer.getInteger("users", 500);
+        double newUserRatio = Double.parseDouble(System.getProperty("newUserRatio", "0.1"));
+        double cancelRatio = Double.parseDouble(System.getProperty("cancelRatio", "0.1"));
+        double overstayRatio = Double.parseDouble(System.getProperty("overstayRatio", "0.15"));
+        long sloMillis = Long.getLong("sloMillis", 1000);
+        double[] curve = System.getProperty("curve") == null ? DEFAULT_CURVE
+                : Arrays.stream(System.getProperty("curve").split(",")).mapToDouble(Double::parseDouble).toArray();
+        if (curve.length != 24) {
+            throw new IllegalArgumentException("The arrival curve needs 24 hourly weights, got " + curve.length);
+        }
+
+        ConfigurableApplicationContext context = BenchmarkContext.start("logging.level.com.parking=warn");
+        try {
+            List<ParkingSlot> slots = new ArrayList<>();
+            for (int i = 0; i < slotCount; i++) {
+                ParkingSlot slot = new ParkingSlot();
+                slot.setSlotNumber("D-" + i);
+                slot.setHourlyRate(10.0);
+                slot.setSlotClass(i % 10 == 0 ? "EV" : null);
+                slots.add(slot);
+            }
+            context.getBean(ParkingSlotService.class).createParkingSlots(slots);
+
+            // Returning drivers are created directly; password hashing is paid for at sign-in
+            String password = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < userCount; i++) {
+                User user = new User();
+                user.setUsername("driver-" + i);
+                user.setEmail("driver-" + i + "@load.test");
+                user.setPassword(password);
+                user.setRoles(Set.of("ROLE_USER"));
+                users.add(user);
+            }
+            context.getBean(UserRepository.class).saveAll(users);
+
+            ParkingDayBenchmark benchmark = new ParkingDayBenchmark(new BenchmarkHttp(context),
+                    users.stream().map(User::getUsername).toList(), curve, newUserRatio, cancelRatio,
+                    overstayRatio, sloMillis);
+            System.out.printf("%nParking day in %d s (%.1f s per hour), %d slots, %d drivers, peak %.1f arrivals/s at 1x, "
+                    + "p99 objective %d ms%n", daySeconds, daySeconds / 24.0, slotCount, userCount, peakArrivals,
+                    sloMillis);
+
+            Day best = null;
+            for (int scale : scales) {
+                Day day = benchmark.new Day(scale, peakArrivals * scale, daySeconds);
+                day.run();
+                day.print();
+                if (!day.sustainable()) break;
+                best = day;
+            }
+            if (best == null) {
+                System.out.printf("%nNo scale met the objective%n");
+            } else {
+                System.out.printf("%nMax sustainable throughput: %.1f req/s in the peak hour (%.1f arrivals/s, %dx)%n",
+                        best.peakHourRate(), best.peakArrivals, best.scale);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    // One simulated day at a given arrival rate
+    private final class Day {
+        private final int scale;
+        private final double peakArrivals;
+        private final long dayNanos;
+        private final long hourNanos;
+        private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+        private final Map<String, AtomicLong> errors = new LinkedHashMap<>();
+        private final AtomicLongArray requestsPerHour = new AtomicLongArray(24);
+        private final AtomicLong sessions = new AtomicLong();
+        private final AtomicLong rejectedBookings = new AtomicLong();
+        private final AtomicLong noFreeSlot = new AtomicLong();
+        private final AtomicLong penalties = new AtomicLong();
+        private long start;
+
+        private Day(int scale, double peakArrivals, int daySeconds) {
+            this.scale = scale;
+            this.peakArrivals = peakArrivals;
+            this.dayNanos = TimeUnit.SECONDS.toNanos(daySeconds);
+            this.hourNanos = dayNanos / 24;
+            for (String endpoint : ENDPOINTS) {
+                latencies.put(endpoint, new ConcurrentHistogram(3));
+                errors.put(endpoint, new AtomicLong());
+            }
+        }
+
+        private void run() throws InterruptedException {
+            Random random = new Random(scale);
+            start = System.nanoTime();
+            double offset = 0;
+            try (ExecutorService drivers = Executors.newVirtualThreadPerTaskExecutor()) {
+                while (true) {
+                    int hour = (int) (offset / hourNanos);
+                    if (hour >= 24) break;
+                    double rate = peakArrivals * curve[hour];
+                    if (rate <= 0) {
+                        offset = (hour + 1) * (double) hourNanos;
+                        continue;
+                    }
+                    offset += -Math.log(1 - random.nextDouble()) / rate * 1e9;
+                    if (offset >= dayNanos) break;
+                    long arrival = start + (long) offset;
+                    long wait = arrival - System.nanoTime();
+                    if (wait > 0) Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+
+                    boolean newUser = random.nextDouble() < newUserRatio;
+                    String username = usernames.get(random.nextInt(usernames.size()));
+                    // Stays of one to four simulated hours
+                    long stayNanos = hourNanos + (long) (random.nextDouble() * 3 * hourNanos);
+                    double outcome = random.nextDouble();
+                    drivers.submit(() -> {
+                        drive(newUser, username, stayNanos, outcome);
+                        return null;
+                    });
+                    sessions.incrementAndGet();
+                }
+            }
+        }
+
+        private void drive(boolean newUser, String username, long stayNanos, double outcome) throws Exception {
+            if (newUser) {
+                username = "day" + scale + "-" + signups.incrementAndGet();
+                String body = objectMapper.writeValueAsString(Map.of("username", username,
+                        "email", username + "@load.test", "password", PASSWORD));
+                if (send(SIGNUP, post("/api/auth/signup", null, body)) == null) return;
+            }
+            HttpResponse<String> signIn = send(SIGNIN, post("/api/auth/signin", null,
+                    objectMapper.writeValueAsString(Map.of("username", username, "password", PASSWORD))));
+            if (signIn == null) return;
+            JsonNode auth = objectMapper.readTree(signIn.body());
+            String token = auth.get("token").asText();
+            String userId = auth.get("id").asText();
+
+            HttpResponse<String> available = send(AVAILABLE, HttpRequest.newBuilder(http.uri("/api/parking-slots/available"))
+                    .header("Authorization", "Bearer " + token).GET().build());
+            if (available == null) return;
+            JsonNode slots = objectMapper.readTree(available.body());
+            if (slots.isEmpty()) {
+                noFreeSlot.incrementAndGet();
+                return;
+            }
+            String slotId = slots.get(ThreadLocalRandom.current().nextInt(slots.size())).get("id").asText();
+
+            // Overstaying drivers booked less time than they stay; the others leave before the end
+            boolean cancel = outcome < cancelRatio;
+            boolean overstay = !cancel && outcome < cancelRatio + overstayRatio;
+            LocalDateTime startTime = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            LocalDateTime endTime = startTime.plusNanos(overstay ? stayNanos / 2 : stayNanos * 3 / 2)
+                    .truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+            String booking = objectMapper.writeValueAsString(Map.of("userId", userId, "slotId", slotId,
+                    "startTime", startTime.toString(), "endTime", endTime.toString()));
+            HttpResponse<String> created = sendAllowing(BOOK, post("/api/bookings", token, booking), "already booked");
+            if (created == null) return;
+            if (created.statusCode() != 200) {
+                // Another driver took the slot between the lookup and the booking
+                rejectedBookings.incrementAndGet();
+                return;
+            }
+            String bookingId = objectMapper.readTree(created.body()).get("id").asText();
+
+            long stay = cancel ? stayNanos / 4 : stayNanos;
+            Thread.sleep(stay / 1_000_000, (int) (stay % 1_000_000));
+            if (send(USER_BOOKINGS, HttpRequest.newBuilder(http.uri("/api/bookings/user/" + userId))
+                    .header("Authorization", "Bearer " + token).GET().build()) == null) return;
+            String endpoint = cancel ? CANCEL : COMPLETE;
+            HttpResponse<String> finished = send(endpoint, HttpRequest.newBuilder(
+                    http.uri(cancel ? "/api/bookings/cancel/" + bookingId : "/api/bookings/complete/" + bookingId))
+                    .header("Authorization", "Bearer " + token).PUT(HttpRequest.BodyPublishers.noBody()).build());
+            if (finished != null && objectMapper.readTree(finished.body()).path("penalty").asBoolean()) {
+                penalties.incrementAndGet();
+            }
+        }
+
+        private HttpRequest post(String path, String token, String body) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(http.uri(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+            if (token != null) builder.header("Authorization", "Bearer " + token);
+            return builder.build();
+        }
+
+        private HttpResponse<String> send(String endpoint, HttpRequest request) {
+            HttpResponse<String> response = sendAllowing(endpoint, request, null);
+            return response == null || response.statusCode() != 200 ? null : response;
+        }
+
+        // Records the latency; failures count as errors unless the body contains the expected rejection
+        private HttpResponse<String> sendAllowing(String endpoint, HttpRequest request, String expectedRejection) {
+            long sent = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = client.send(HttpRequest.newBuilder(request, (name, value) -> true)
+                        .timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+            } catch (Exception e) {
+                response = null;
+            }
+            long now = System.nanoTime();
+            latencies.get(endpoint).recordValue(TimeUnit.NANOSECONDS.toMicros(now - sent));
+            requestsPerHour.incrementAndGet((int) Math.min(Math.max((sent - start) / hourNanos, 0), 23));
+            if (response == null || (response.statusCode() != 200 && (expectedRejection == null
+                    || !response.body().contains(expectedRejection)))) {
+                errors.get(endpoint).incrementAndGet();
+                return null;
+            }
+            return response;
+        }
+
+        private long totalRequests() {
+            return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        }
+
+        private long totalErrors() {
+            return errors.values().stream().mapToLong(AtomicLong::get).sum();
+        }
+
+        private double peakHourRate() {
+            long peak = 0;
+            for (int hour = 0; hour < 24; hour++) {
+                peak = Math.max(peak, requestsPerHour.get(hour));
+            }
+            return peak / (hourNanos / 1e9);
+        }
+
+        private String failure() {
+            for (String endpoint : ENDPOINTS) {
+                Histogram histogram = latencies.get(endpoint);
+                if (histogram.getTotalCount() > 0 && histogram.getValueAtPercentile(99) / 1000.0 > sloMillis) {
+                    return endpoint + " p99 over " + sloMillis + " ms";
+                }
+            }
+            if (totalErrors() > totalRequests() / 100) return "error rate over 1%";
+            return null;
+        }
+
+        private boolean sustainable() {
+            return failure() == null;
+        }
+
+        private void print() {
+            System.out.printf("%n%dx: peak %.1f arrivals/s, %d drivers, %d bookings rejected, %d found no free slot, "
+                    + "%d penalties%n", scale, peakArrivals, sessions.get(), rejectedBookings.get(), noFreeSlot.get(),
+                    penalties.get());
+            System.out.printf("  %-34s %8s %9s %9s %9s %9s %9s %7s%n", "endpoint", "count", "p50 ms", "p90 ms",
+                    "p99 ms", "p99.9 ms", "max ms", "errors");
+            for (String endpoint : ENDPOINTS) {
+                Histogram histogram = latencies.get(endpoint);
+                System.out.printf("  %-34s %8d %9.1f %9.1f %9.1f %9.1f %9.1f %7d%n", endpoint,
+                        histogram.getTotalCount(), histogram.getValueAtPercentile(50) / 1000.0,
+                        histogram.getValueAtPercentile(90) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                        histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0,
+                        errors.get(endpoint).get());
+            }
+            String failure = failure();
+            System.out.printf("  %d requests, %.1f req/s over the day, %.1f req/s in the peak hour -> %s%n",
+                    totalRequests(), totalRequests() / (dayNanos / 1e9), peakHourRate(),
+                    failure == null ? "sustainable" : "not sustainable (" + failure + ")");
+        }
+    }
+}
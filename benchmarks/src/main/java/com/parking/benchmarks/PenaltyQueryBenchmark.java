@@ -0,0 +1,74 @@
+package com.parking.benchmarks;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.parking.dto.PenaltyPage;
+import com.parking.model.Booking;
+import com.parking.repository.BookingRepository;
+import com.parking.service.BookingService;
+
+// Compares the old in-heap penalty filter (findAll + stream filter) with the paged,
+// index-backed penalty query on a large bookings table.
+//
+// Options: -Dbookings=1000000 -DpenaltyRatio=0.01 -Diterations=5 -Dsize=50
+// The default of one million bookings needs a few GB of heap: -Dbenchmark.jvmArgs="-Xmx3g"
+public class PenaltyQueryBenchmark {
+
+    public static void main(String[] args) {
+        int bookingCount = Integer.getInteger("bookings", 1_000_000);
+        double penaltyRatio = Double.parseDouble(System.getProperty("penaltyRatio", "0.01"));
+        int iterations = Integer.getInteger("iterations", 5);
+        int size = Integer.getInteger("size", 50);
+
+        ConfigurableApplicationContext context = BenchmarkContext.start();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        BookingService bookingService = context.getBean(BookingService.class);
+
+        BenchmarkData.seedBookings(jdbcTemplate, bookingCount, penaltyRatio);
+
+        // Warm up both paths once
+        bookingRepository.findAll().stream().filter(Booking::isPenalty).count();
+        bookingService.getBookingsWithPenalty(0, size);
+
+        double beforeMillis = 0;
+        long beforeBytes = 0;
+        long penaltyCount = 0;
+        for (int i = 0; i < iterations; i++) {
+            long bytes = BenchmarkSupport.allocatedBytes();
+            long start = System.nanoTime();
+            penaltyCount = bookingRepository.findAll().stream().filter(Booking::isPenalty).count();
+            beforeMillis += BenchmarkSupport.millisSince(start);
+            beforeBytes += BenchmarkSupport.allocatedBytes() - bytes;
+        }
+
+        double afterMillis = 0;
+        long afterBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            long bytes = BenchmarkSupport.allocatedBytes();
+            long start = System.nanoTime();
+            bookingService.getBookingsWithPenalty(i, size);
+            afterMillis += BenchmarkSupport.millisSince(start);
+            afterBytes += BenchmarkSupport.allocatedBytes() - bytes;
+        }
+
+        // Walking every penalty page is still far cheaper than loading the table
+        long start = System.nanoTime();
+        int pages = 0;
+        PenaltyPage page;
+        do {
+            page = bookingService.getBookingsWithPenalty(pages++, 500);
+        } while (page.isHasNext());
+        double walkMillis = BenchmarkSupport.millisSince(start);
+
+        System.out.printf("%nPenalty query: %d bookings, %d with penalty%n", bookingCount, penaltyCount);
+        System.out.printf("  before  findAll + filter       %8.1f ms/op  %s/op%n",
+                beforeMillis / iterations, BenchmarkSupport.megabytes(beforeBytes / iterations));
+        System.out.printf("  after   page of %-4d            %8.1f ms/op  %s/op%n",
+                size, afterMillis / iterations, BenchmarkSupport.megabytes(afterBytes / iterations));
+        System.out.printf("  after   all %d pages of 500     %8.1f ms%n", pages, walkMillis);
+
+        context.close();
+    }
+}
@@ -0,0 +1,153 @@
+package com.parking.benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.parking.model.PricingRule;
+import com.parking.model.PricingRule.RuleType;
+import com.parking.service.CompiledPricing;
+
+// Evaluations per second of the compiled pricing rules against the previous hard-coded formula
+// and a straightforward per-hour walk over the same rules. Run through JMH:
+// -Dbenchmark.main=org.openjdk.jmh.Main -Dbenchmark.args="PricingEvaluationBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEvaluationBenchmark {
+
+    private static final int INPUTS = 1024;
+    private static final String[] CLASSES = { null, "COMPACT", "EV", "PREMIUM" };
+
+    private final LocalDateTime[] starts = new LocalDateTime[INPUTS];
+    private final LocalDateTime[] ends = new LocalDateTime[INPUTS];
+    private final LocalDateTime[] nows = new LocalDateTime[INPUTS];
+    private final String[] slotClasses = new String[INPUTS];
+    private final double[] rates = new double[INPUTS];
+
+    private List<PricingRule> rules;
+    private CompiledPricing pricing;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        rules = List.of(
+                rule(RuleType.BOOKING, "EV", null, null, 0, null, 1.0, 2.0),
+                rule(RuleType.BOOKING, "PREMIUM", 7, 19, 0, null, 1.5, 0.0),
+                rule(RuleType.BOOKING, null, 22, 6, 0, null, 0.5, 0.0),
+                rule(RuleType.BOOKING, null, null, null, 4, 24, 0.8, 0.0),
+                rule(RuleType.BOOKING, null, null, null, 24, null, 0.6, 0.0),
+                rule(RuleType.BOOKING, "COMPACT", null, null, 0, null, 0.9, 0.0),
+                rule(RuleType.PENALTY, null, null, null, 2, null, 2.0, 0.0),
+                rule(RuleType.PENALTY, "EV", null, null, 0, null, 1.0, 5.0));
+        pricing = CompiledPricing.compile(1, rules);
+
+        Random random = new Random(42);
+        LocalDateTime origin = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < INPUTS; i++) {
+            starts[i] = origin.plusMinutes(random.nextInt(365 * 24 * 60));
+            // Mostly short stays with a tail of multi-day ones
+            ends[i] = starts[i].plusMinutes(30 + (random.nextInt(10) == 0 ? random.nextInt(7 * 24 * 60) : random.nextInt(8 * 60)));
+            nows[i] = ends[i].plusMinutes(random.nextInt(12 * 60));
+            slotClasses[i] = CLASSES[random.nextInt(CLASSES.length)];
+            rates[i] = 5 + random.nextInt(20);
+        }
+
+        // The compiled tables must agree with the rules evaluated hour by hour
+        for (int i = 0; i < INPUTS; i++) {
+            double compiled = pricing.bookingAmount(slotClasses[i], rates[i], starts[i], ends[i]);
+            double walked = walk(RuleType.BOOKING, slotClasses[i], rates[i], starts[i], ends[i]);
+            if (Math.abs(compiled - walked) > 1e-6) {
+                throw new IllegalStateException("Compiled " + compiled + " != walked " + walked + " for input " + i);
+            }
+        }
+    }
+
+    @Benchmark
+    public double hardCodedFormula() {
+        int i = next();
+        Duration duration = Duration.between(starts[i], ends[i]);
+        long hours = duration.toHours();
+        if (duration.toMinutesPart() > 0) hours++;
+        return hours * rates[i];
+    }
+
+    @Benchmark
+    public double compiledBookingAmount() {
+        int i = next();
+        return pricing.bookingAmount(slotClasses[i], rates[i], starts[i], ends[i]);
+    }
+
+    @Benchmark
+    public double compiledPenaltyAmount() {
+        int i = next();
+        return pricing.penaltyAmount(slotClasses[i], rates[i], 50.0, ends[i], nows[i]);
+    }
+
+    @Benchmark
+    public double ruleWalkBookingAmount() {
+        int i = next();
+        return walk(RuleType.BOOKING, slotClasses[i], rates[i], starts[i], ends[i]);
+    }
+
+    private int next() {
+        return next = (next + 1) & (INPUTS - 1);
+    }
+
+    // Reference evaluation: every billed hour checks the rules in order
+    private double walk(RuleType type, String slotClass, double rate, LocalDateTime from, LocalDateTime to) {
+        long minutes = Duration.between(from, to).toMinutes();
+        long hours = minutes / 60 + (minutes % 60 > 0 ? 1 : 0);
+        double amount = 0;
+        for (long h = 0; h < hours; h++) {
+            int hourOfDay = (int) ((from.getHour() + h) % 24);
+            double price = rate;
+            for (PricingRule rule : rules) {
+                if (rule.getType() != type) continue;
+                if (rule.getSlotClass() != null && !rule.getSlotClass().equals(slotClass)) continue;
+                if (h < rule.getMinHours() || (rule.getMaxHours() != null && h >= rule.getMaxHours())) continue;
+                if (rule.getStartHour() != null && !covers(rule.getStartHour(), rule.getEndHour(), hourOfDay)) continue;
+                price = rate * rule.getRateMultiplier() + rule.getHourlySurcharge();
+                break;
+            }
+            amount += price;
+        }
+        return amount;
+    }
+
+    private static boolean covers(int start, int end, int hour) {
+        if (start == end) return true;
+        return start < end ? hour >= start && hour < end : hour >= start || hour < end;
+    }
+
+    private static PricingRule rule(RuleType type, String slotClass, Integer startHour, Integer endHour,
+            int minHours, Integer maxHours, double multiplier, double surcharge) {
+        PricingRule rule = new PricingRule();
+        rule.setName(type + " " + slotClass + " " + startHour + "-" + endHour + " " + minHours + "+");
+        rule.setType(type);
+        rule.setSlotClass(slotClass);
+        rule.setStartHour(startHour);
+        rule.setEndHour(endHour);
+        rule.setMinHours(minHours);
+        rule.setMaxHours(maxHours);
+        rule.setRateMultiplier(multiplier);
+        rule.setHourlySurcharge(surcharge);
+        return rule;
+    }
+}
@@ -0,0 +1,170 @@
+package com.parking.benchmarks;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.parking.benchmarks.StatementRecorder.RecordedStatement;
+import com.parking.model.Booking.BookingStatus;
+import com.parking.model.ParkingSlot.SlotStatus;
+import com.parking.repository.BookingRepository;
+import com.parking.repository.GlobalSettingsRepository;
+import com.parking.repository.ParkingSlotRepository;
+import com.parking.repository.UserRepository;
+import com.parking.util.SchemaIndexCheck;
+
+// Runs every filtered repository query against a seeded schema built by the migrations, explains
+// the SQL Hibernate executed with the same parameters, and fails (exit code 1) when any of them scans
+// a whole table or SchemaIndexCheck reports a missing index. Whole-table reads (findAll, streamAll,
+// exports) are left out on purpose. Against PostgreSQL the tables are analyzed first so the planner
+// sees realistic sizes.
+//
+// Options: -Dbookings=100000 -Dslots=2000 -Dusers=10000
+public class QueryPlanCheck {
+
+    // H2 names the access path in a comment ("/* public.idx_x: ... */" or "/* public.bookings.tableScan */");
+    // PostgreSQL prints plan nodes
+    private static final Pattern H2_ACCESS = Pattern.compile("/\\* ([\\w.]+)(?::| \\*/)");
+    private static final Pattern POSTGRES_ACCESS = Pattern.compile(
+            "(Seq Scan|Index Only Scan|Index Scan|Bitmap Index Scan)(?: Backward)?(?: using (\\w+))? on (\\w+)");
+
+    public static void main(String[] args) throws Exception {
+        int bookingCount = Integer.getInteger("bookings", 100_000);
+        int slotCount = Integer.getInteger("slots", 2000);
+        int userCount = Integer.getInteger("users", 10_000);
+
+        ConfigurableApplicationContext context = BenchmarkContext.start("logging.level.com.parking=warn",
+                "benchmark.record-statements=true");
+        List<String> failures = new ArrayList<>();
+        try {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+            ParkingSlotRepository parkingSlotRepository = context.getBean(ParkingSlotRepository.class);
+            UserRepository userRepository = context.getBean(UserRepository.class);
+            GlobalSettingsRepository globalSettingsRepository = context.getBean(GlobalSettingsRepository.class);
+            TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            boolean h2 = BenchmarkData.isH2(jdbcTemplate);
+
+            // A busy lot: most slots occupied, a few percent of bookings active
+            BenchmarkData.seedUsers(jdbcTemplate, userCount);
+            List<UUID> slotIds = BenchmarkData.seedSlots(jdbcTemplate, slotCount);
+            jdbcTemplate.update("UPDATE parking_slots SET status = 'OCCUPIED' WHERE slot_number NOT LIKE 'S-_'");
+            BenchmarkData.seedBookings(jdbcTemplate, bookingCount, 0.01);
+            BenchmarkData.seedActiveBookings(jdbcTemplate, slotIds, slotCount, LocalDateTime.now(), 3600);
+            if (!h2) jdbcTemplate.execute("ANALYZE");
+
+            Map<String, Object> booking = jdbcTemplate.queryForMap(
+                    "SELECT id, user_id, slot_id, created_at FROM bookings WHERE status = 'ACTIVE' LIMIT 1");
+            UUID bookingId = (UUID) booking.get("id");
+            UUID userId = (UUID) booking.get("user_id");
+            UUID slotId = (UUID) booking.get("slot_id");
+            LocalDateTime createdAt = ((Timestamp) booking.get("created_at")).toLocalDateTime();
+            UUID settingsId = globalSettingsRepository.findFirstByOrderByIdAsc().getId();
+            UUID anyUserId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'user-1'", UUID.class);
+            Limit page = Limit.of(21);
+
+            Map<String, Runnable> queries = new LinkedHashMap<>();
+            queries.put("BookingRepository.findById", () -> bookingRepository.findById(bookingId));
+            queries.put("BookingRepository.findByUserId", () -> bookingRepository.findByUserId(userId));
+            queries.put("BookingRepository.findBySlotId", () -> bookingRepository.findBySlotId(slotId));
+            queries.put("BookingRepository.findByStatus", () -> bookingRepository.findByStatus(BookingStatus.ACTIVE));
+            queries.put("BookingRepository.findByUserIdAndStatus",
+                    () -> bookingRepository.findByUserIdAndStatus(userId, BookingStatus.ACTIVE));
+            queries.put("BookingRepository.countByStatus", () -> bookingRepository.countByStatus(BookingStatus.ACTIVE));
+            queries.put("BookingRepository.countByPenaltyTrue", bookingRepository::countByPenaltyTrue);
+            queries.put("BookingRepository.findByPenaltyTrue(Pageable)", () -> bookingRepository.findByPenaltyTrue(
+                    PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "updatedAt"))));
+            queries.put("BookingRepository.findByUserIdOrderByCreatedAtDescIdDesc",
+                    () -> bookingRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, page));
+            queries.put("BookingRepository.findByUserIdAndStatusOrderByCreatedAtDescIdDesc",
+                    () -> bookingRepository.findByUserIdAndStatusOrderByCreatedAtDescIdDesc(userId,
+                            BookingStatus.ACTIVE, page));
+            queries.put("BookingRepository.findByUserIdBefore",
+                    () -> bookingRepository.findByUserIdBefore(userId, createdAt, bookingId, page));
+            queries.put("BookingRepository.findByUserIdAndStatusBefore",
+                    () -> bookingRepository.findByUserIdAndStatusBefore(userId, BookingStatus.ACTIVE, createdAt,
+                            bookingId, page));
+            queries.put("BookingRepository.countByUserIdGroupByStatus",
+                    () -> bookingRepository.countByUserIdGroupByStatus(userId));
+            queries.put("BookingRepository.findIdAndPenaltyByStatus",
+                    () -> bookingRepository.findIdAndPenaltyByStatus(BookingStatus.ACTIVE));
+            queries.put("BookingRepository.existsOverlapping", () -> bookingRepository.existsOverlapping(slotId,
+                    createdAt, createdAt.plusHours(1), BookingStatus.ACTIVE));
+            queries.put("BookingRepository.findDueForActivation", () -> bookingRepository.findDueForActivation(
+                    LocalDateTime.now(), BookingStatus.ACTIVE, SlotStatus.AVAILABLE));
+            queries.put("BookingRepository.findIdsByStatus",
+                    () -> bookingRepository.findIdsByStatus(List.of(bookingId), BookingStatus.ACTIVE));
+            queries.put("ParkingSlotRepository.findById", () -> parkingSlotRepository.findById(slotId));
+            queries.put("ParkingSlotRepository.findByIdForUpdate", () -> parkingSlotRepository.findByIdForUpdate(slotId));
+            queries.put("ParkingSlotRepository.findByStatus",
+                    () -> parkingSlotRepository.findByStatus(SlotStatus.AVAILABLE));
+            queries.put("ParkingSlotRepository.existsBySlotNumber", () -> parkingSlotRepository.existsBySlotNumber("S-1"));
+            queries.put("ParkingSlotRepository.findExistingSlotNumbers",
+                    () -> parkingSlotRepository.findExistingSlotNumbers(List.of("S-1", "S-2", "S-new")));
+            queries.put("UserRepository.findById (with roles)",
+                    () -> userRepository.findById(anyUserId).map(user -> user.getRoles().size()));
+            queries.put("UserRepository.findByUsername", () -> userRepository.findByUsername("user-1"));
+            queries.put("UserRepository.findByEmail", () -> userRepository.findByEmail("user-1@load.test"));
+            queries.put("UserRepository.existsByUsername", () -> userRepository.existsByUsername("user-1"));
+            queries.put("UserRepository.existsByEmail", () -> userRepository.existsByEmail("user-1@load.test"));
+            queries.put("UserRepository.existsByUsernameAndActiveTrue",
+                    () -> userRepository.existsByUsernameAndActiveTrue("user-1"));
+            queries.put("GlobalSettingsRepository.findVersionById",
+                    () -> globalSettingsRepository.findVersionById(settingsId));
+
+            System.out.printf("%nQuery plans (%s, %d bookings, %d slots, %d users)%n", h2 ? "H2" : "PostgreSQL",
+                    bookingCount + slotCount, slotCount, userCount);
+            for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+                List<RecordedStatement> statements = StatementRecorder.record(
+                        () -> transaction.executeWithoutResult(status -> query.getValue().run()));
+                for (RecordedStatement statement : statements) {
+                    String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + statement.sql(),
+                            String.class, statement.parameters().toArray()));
+                    List<String> access = access(plan, h2);
+                    boolean scan = access.stream().anyMatch(path -> path.contains("tableScan")
+                            || path.startsWith("Seq Scan"));
+                    System.out.printf("  %-4s %-68s %s%n", scan ? "SCAN" : "ok", query.getKey(),
+                            String.join(", ", access));
+                    if (scan) failures.add(query.getKey() + ": " + statement.sql());
+                }
+            }
+
+            List<String> missing = context.getBean(SchemaIndexCheck.class).missingIndexes();
+            missing.forEach(index -> failures.add("missing index " + index));
+        } finally {
+            context.close();
+        }
+
+        if (!failures.isEmpty()) {
+            System.out.printf("%n%d problem(s):%n", failures.size());
+            failures.forEach(failure -> System.out.println("  " + failure));
+        } else {
+            System.out.println("\nNo table scans");
+        }
+        System.exit(failures.isEmpty() ? 0 : 1);
+    }
+
+    // Access paths in the plan, e.g. "public.idx_bookings_status" or "Index Scan using pk_bookings on bookings"
+    private static List<String> access(String plan, boolean h2) {
+        List<String> paths = new ArrayList<>();
+        Matcher matcher = (h2 ? H2_ACCESS : POSTGRES_ACCESS).matcher(plan);
+        while (matcher.find()) {
+            paths.add(h2 ? matcher.group(1) : matcher.group());
+        }
+        return paths;
+    }
+}
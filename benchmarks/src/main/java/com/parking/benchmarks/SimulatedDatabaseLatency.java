@@ -0,0 +1,56 @@
+package com.parking.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+// Delays every statement execution and commit by a fixed time, standing in for the round trip to a
+// database server when the benchmarks run against in-memory H2. Registered by BenchmarkContext and
+// inactive unless benchmark.db-latency-ms is set.
+public class SimulatedDatabaseLatency implements BeanPostProcessor, EnvironmentAware {
+
+    private Duration latency = Duration.ZERO;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        double millis = environment.getProperty("benchmark.db-latency-ms", Double.class, 0.0);
+        latency = Duration.ofNanos((long) (millis * 1_000_000));
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (latency.isZero() || !(bean instanceof DataSource dataSource)) return bean;
+        return wrap(dataSource, DataSource.class);
+    }
+
+    private <T> T wrap(T target, Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            String name = method.getName();
+            if ((target instanceof Statement && name.startsWith("execute"))
+                    || (target instanceof Connection && (name.equals("commit") || name.equals("rollback")))) {
+                Thread.sleep(latency);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection connection) return wrap(connection, Connection.class);
+            if (result instanceof CallableStatement statement) return wrap(statement, CallableStatement.class);
+            if (result instanceof PreparedStatement statement) return wrap(statement, PreparedStatement.class);
+            if (result instanceof Statement statement) return wrap(statement, Statement.class);
+            return result;
+        }));
+    }
+}
@@ -0,0 +1,84 @@
+package com.parking.benchmarks;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Provisioning a structure over HTTP: one POST /api/parking-slots per slot versus a single
+// POST /api/parking-slots/batch, plus a second batch that repeats every slot number to
+// check that each item is rejected individually.
+//
+// Options: -Dslots=5000 -DsingleSlots=1000
+public class SlotProvisioningBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int slotCount = Integer.getInteger("slots", 5000);
+        int singleCount = Integer.getInteger("singleSlots", 1000);
+
+        ConfigurableApplicationContext context = BenchmarkContext.start();
+        try {
+            BenchmarkHttp http = new BenchmarkHttp(context);
+            String token = http.signInAsAdmin();
+
+            // Warm up both endpoints
+            for (int i = 0; i < 200; i++) {
+                post(http, token, "/api/parking-slots", Map.of("slotNumber", "W-" + i));
+            }
+            post(http, token, "/api/parking-slots/batch", slots("WB-", 500));
+
+            System.out.printf("%nSlot provisioning%n");
+            long start = System.nanoTime();
+            for (int i = 0; i < singleCount; i++) {
+                post(http, token, "/api/parking-slots", Map.of("slotNumber", "S-" + i));
+            }
+            double singleMillis = BenchmarkSupport.millisSince(start);
+            System.out.printf("  %-36s %8.1f ms  (%.1f ms per 1000 slots)%n",
+                    singleCount + " x POST /api/parking-slots", singleMillis, singleMillis * 1000 / singleCount);
+
+            post(http, token, "/api/parking-slots/batch", slots("WB2-", slotCount));
+            List<Map<String, Object>> batch = slots("B-", slotCount);
+            start = System.nanoTime();
+            JsonNode response = post(http, token, "/api/parking-slots/batch", batch);
+            double batchMillis = BenchmarkSupport.millisSince(start);
+            System.out.printf("  %-36s %8.1f ms  (%d created, %d errors)%n",
+                    "POST /api/parking-slots/batch [" + slotCount + "]", batchMillis,
+                    response.get("created").size(), response.get("errors").size());
+
+            JsonNode repeated = post(http, token, "/api/parking-slots/batch", batch);
+            System.out.printf("  %-36s %d created, %d errors, first: %s%n", "same batch again",
+                    repeated.get("created").size(), repeated.get("errors").size(),
+                    repeated.get("errors").path(0).path("message").asText());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static List<Map<String, Object>> slots(String prefix, int count) {
+        List<Map<String, Object>> slots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            slots.add(Map.of("slotNumber", prefix + i));
+        }
+        return slots;
+    }
+
+    private static JsonNode post(BenchmarkHttp http, String token, String path, Object body) throws Exception {
+        HttpResponse<String> response = http.client().send(HttpRequest.newBuilder(http.uri(path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(OBJECT_MAPPER.writeValueAsString(body)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("POST " + path + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return OBJECT_MAPPER.readTree(response.body());
+    }
+}
@@ -0,0 +1,163 @@
+package com.parking.benchmarks;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.parking.service.ParkingSlotService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Many clients polling GET /api/parking-slots while an admin changes a slot rate every writeIntervalMs,
+// with read coalescing off, sharing in-flight queries only (max staleness 0) and reusing results for
+// maxStalenessMs. Every statement is delayed by dbLatencyMs. Reports throughput, latency percentiles,
+// the parking_slots queries run per request and the coalescing counters.
+//
+// Options: -Dclients=200 -Dseconds=10 -Dwarmup=3 -Dslots=1000 -DwriteIntervalMs=100 -DmaxStalenessMs=250
+//          -DdbLatencyMs=2
+public class SlotReadCoalescingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("clients", 200);
+        int seconds = Integer.getInteger("seconds", 10);
+        int warmup = Integer.getInteger("warmup", 3);
+        int slots = Integer.getInteger("slots", 1000);
+        int writeIntervalMs = Integer.getInteger("writeIntervalMs", 100);
+        String maxStalenessMs = System.getProperty("maxStalenessMs", "250");
+        String dbLatencyMs = System.getProperty("dbLatencyMs", "2");
+
+        System.out.printf("%nGET /api/parking-slots, %d clients, %d slots, a rate change every %d ms, %s ms per statement%n",
+                clients, slots, writeIntervalMs, dbLatencyMs);
+        List<String[]> runs = List.of(
+                new String[] { "coalescing off", "app.slots.read-coalescing.enabled=false" },
+                new String[] { "in-flight only (staleness 0)", "app.slots.read-coalescing.max-staleness-ms=0" },
+                new String[] { "max staleness " + maxStalenessMs + " ms",
+                        "app.slots.read-coalescing.max-staleness-ms=" + maxStalenessMs });
+        for (String[] run : runs) {
+            run(run[0], run[1], clients, seconds, warmup, slots, writeIntervalMs, dbLatencyMs);
+        }
+    }
+
+    private static void run(String label, String override, int clients, int seconds, int warmup, int slots,
+            int writeIntervalMs, String dbLatencyMs) throws Exception {
+        ConfigurableApplicationContext context = BenchmarkContext.start(override, "benchmark.db-latency-ms=" + dbLatencyMs,
+                "logging.level.com.parking=warn");
+        try {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            ParkingSlotService parkingSlotService = context.getBean(ParkingSlotService.class);
+            // The in-memory database outlives the context, so later runs reuse the slots
+            if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM parking_slots", Long.class) == 0) {
+                BenchmarkData.seedSlots(jdbcTemplate, slots);
+            }
+            UUID writtenSlot = jdbcTemplate.queryForObject("SELECT id FROM parking_slots WHERE slot_number = 'S-0'",
+                    UUID.class);
+
+            BenchmarkHttp http = new BenchmarkHttp(context);
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(http.uri("/api/parking-slots"))
+                    .header("Authorization", "Bearer " + http.signInAsAdmin())
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+
+            Histogram latencies = new ConcurrentHistogram(3);
+            AtomicLong errors = new AtomicLong();
+            AtomicLong writes = new AtomicLong();
+            long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmup);
+            long measureUntil = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+            long queries;
+            Map<String, Object> statsAtStart;
+            Map<String, Object> stats;
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < clients; i++) {
+                    executor.submit(() -> {
+                        while (System.nanoTime() < measureUntil) {
+                            long start = System.nanoTime();
+                            int status;
+                            try {
+                                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            } catch (Exception e) {
+                                status = -1;
+                            }
+                            long end = System.nanoTime();
+                            if (start < measureFrom || end > measureUntil) continue;
+                            if (status != 200) errors.incrementAndGet();
+                            else latencies.recordValue((end - start) / 1000);
+                        }
+                    });
+                }
+                executor.submit(() -> {
+                    double rate = 10.0;
+                    while (System.nanoTime() < measureUntil) {
+                        parkingSlotService.updateParkingSlotRate(writtenSlot, rate += 0.5);
+                        if (System.nanoTime() >= measureFrom) writes.incrementAndGet();
+                        try {
+                            Thread.sleep(writeIntervalMs);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                });
+
+                sleepUntil(measureFrom);
+                long queriesAtStart = slotSelects(context);
+                statsAtStart = parkingSlotService.getSlotReadStats();
+                sleepUntil(measureUntil);
+                queries = slotSelects(context) - queriesAtStart;
+                stats = parkingSlotService.getSlotReadStats();
+            }
+
+            long requests = latencies.getTotalCount();
+            long executed = delta(stats, statsAtStart, "executed");
+            long joined = delta(stats, statsAtStart, "joined");
+            long cached = delta(stats, statsAtStart, "cached");
+            long reads = executed + joined + cached;
+
+            System.out.printf("%n  %s%n", label);
+            System.out.printf("    throughput        %10.0f requests/s (%d errors, %d writes)%n",
+                    requests / (double) seconds, errors.get(), writes.get());
+            System.out.printf("    latency           p50 %7.2f ms   p99 %7.2f ms   max %7.2f ms%n",
+                    latencies.getValueAtPercentile(50) / 1000.0, latencies.getValueAtPercentile(99) / 1000.0,
+                    latencies.getMaxValue() / 1000.0);
+            System.out.printf("    parking_slots selects %6d (%.3f per request)%n", queries,
+                    requests == 0 ? 0 : queries / (double) requests);
+            if (reads > 0) {
+                System.out.printf("    reads             executed %d, joined %d, cached %d, coalescing ratio %.3f%n",
+                        executed, joined, cached, (joined + cached) / (double) reads);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        Thread.sleep(Math.max(0, TimeUnit.NANOSECONDS.toMillis(nanoTime - System.nanoTime())));
+    }
+
+    private static long delta(Map<String, Object> stats, Map<String, Object> before, String name) {
+        return ((Number) stats.get(name)).longValue() - ((Number) before.get(name)).longValue();
+    }
+
+    // SELECTs run against parking_slots so far
+    private static long slotSelects(ConfigurableApplicationContext context) {
+        long count = 0;
+        for (Timer timer : context.getBean(MeterRegistry.class).find("parking.db.statements").timers()) {
+            if ("select parking_slots".equals(timer.getId().getTag("statement"))) count += timer.count();
+        }
+        return count;
+    }
+}
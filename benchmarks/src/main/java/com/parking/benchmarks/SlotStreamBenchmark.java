@@ -0,0 +1,277 @@
+package com.parking.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.parking.model.ParkingSlot;
+import com.parking.service.ParkingSlotService;
+import com.parking.service.SlotAvailabilityFeed;
+
+// Load test of GET /api/parking-slots/stream. Subscribers run in child JVMs (each process has its
+// own file descriptor limit) and record how long after publication every delta reaches them while
+// slots are booked and released at a steady rate. A few raw-socket subscribers never read, to show
+// that slow consumers are cut off (stalls, overflows) without holding up the others.
+//
+// Options: -Dsubscribers=10000 -DclientProcesses=4 -DslowSubscribers=20 -Dslots=500
+//          -DchangesPerSecond=200 -Dseconds=30
+public class SlotStreamBenchmark {
+
+    private static final int MAX_LATENCY_MILLIS = 60_000;
+
+    public static void main(String[] args) throws Exception {
+        int subscriberCount = Integer.getInteger("subscribers", 10_000);
+        int clientProcesses = Integer.getInteger("clientProcesses", 4);
+        int slowSubscribers = Integer.getInteger("slowSubscribers", 20);
+        int slotCount = Integer.getInteger("slots", 500);
+        int changesPerSecond = Integer.getInteger("changesPerSecond", 200);
+        int seconds = Integer.getInteger("seconds", 30);
+
+        ConfigurableApplicationContext context = BenchmarkContext.start("logging.level.com.parking=warn");
+        List<Process> clients = new ArrayList<>();
+        List<Socket> slowSockets = new ArrayList<>();
+        try {
+            ParkingSlotService parkingSlotService = context.getBean(ParkingSlotService.class);
+            SlotAvailabilityFeed feed = context.getBean(SlotAvailabilityFeed.class);
+            List<ParkingSlot> slots = new ArrayList<>();
+            for (int i = 0; i < slotCount; i++) {
+                ParkingSlot slot = new ParkingSlot();
+                slot.setSlotNumber("S-" + i);
+                slot.setHourlyRate(10.0);
+                slots.add(slot);
+            }
+            List<UUID> slotIds = parkingSlotService.createParkingSlots(slots).getCreated().stream()
+                    .map(ParkingSlot::getId).toList();
+
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            long start = System.nanoTime();
+            for (int p = 0; p < clientProcesses; p++) {
+                int count = subscriberCount / clientProcesses + (p < subscriberCount % clientProcesses ? 1 : 0);
+                clients.add(new ProcessBuilder(ProcessHandle.current().info().command().orElse("java"),
+                        "-Xss256k", "-cp", System.getProperty("java.class.path"), Subscribers.class.getName(),
+                        "http://localhost:" + port + "/api/parking-slots/stream", String.valueOf(count))
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start());
+            }
+            List<BufferedReader> outputs = new ArrayList<>();
+            for (Process client : clients) {
+                BufferedReader output = new BufferedReader(new InputStreamReader(client.getInputStream()));
+                String line = output.readLine();
+                if (line == null || !line.startsWith("READY")) {
+                    throw new IllegalStateException("Subscriber process failed to connect: " + line);
+                }
+                outputs.add(output);
+            }
+            double connectMillis = BenchmarkSupport.millisSince(start);
+            for (int i = 0; i < slowSubscribers; i++) {
+                slowSockets.add(slowSubscriber(port));
+            }
+            System.gc();
+            long heapAfterConnect = usedHeap();
+
+            // Book and release random slots at a steady rate
+            Map<UUID, LocalDateTime> booked = new HashMap<>();
+            UUID userId = UUID.randomUUID();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long framesBefore = (long) feed.getStats().get("framesPublished");
+            long changes = 0;
+            long intervalNanos = 1_000_000_000L / changesPerSecond;
+            long churnStart = System.nanoTime();
+            long deadline = churnStart + TimeUnit.SECONDS.toNanos(seconds);
+            while (System.nanoTime() < deadline) {
+                UUID slotId = slotIds.get(random.nextInt(slotIds.size()));
+                LocalDateTime startTime = booked.remove(slotId);
+                if (startTime != null) {
+                    if (!parkingSlotService.releaseParkingSlot(slotId, userId, startTime)) {
+                        throw new IllegalStateException("Slot " + slotId + " was not released");
+                    }
+                } else {
+                    // Whole seconds survive the round trip through the timestamp column unchanged
+                    LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+                    parkingSlotService.bookParkingSlot(slotId, userId, now, now.plusHours(1));
+                    booked.put(slotId, now);
+                }
+                changes++;
+                long next = churnStart + changes * intervalNanos;
+                long sleep = next - System.nanoTime();
+                if (sleep > 0) Thread.sleep(sleep / 1_000_000, (int) (sleep % 1_000_000));
+            }
+            // Let the last deltas reach every subscriber
+            Thread.sleep(5000);
+            long framesPublished = (long) feed.getStats().get("framesPublished") - framesBefore;
+
+            long[] histogram = new long[MAX_LATENCY_MILLIS + 1];
+            long frames = 0;
+            long snapshots = 0;
+            long errors = 0;
+            for (int p = 0; p < clients.size(); p++) {
+                clients.get(p).getOutputStream().write("STOP\n".getBytes(StandardCharsets.US_ASCII));
+                clients.get(p).getOutputStream().flush();
+                String[] result = outputs.get(p).readLine().split(" ");
+                frames += Long.parseLong(result[1]);
+                snapshots += Long.parseLong(result[2]);
+                errors += Long.parseLong(result[3]);
+                String histogramLine = outputs.get(p).readLine();
+                for (String bucket : histogramLine.substring("HIST".length()).trim().split(" ")) {
+                    if (bucket.isEmpty()) continue;
+                    String[] parts = bucket.split(":");
+                    histogram[Integer.parseInt(parts[0])] += Long.parseLong(parts[1]);
+                }
+            }
+
+            System.out.printf("%nSlot availability stream, %d subscribers in %d processes, %d slots%n",
+                    subscriberCount, clientProcesses, slotCount);
+            System.out.printf("  all connected with snapshot in %.0f ms, server heap %s%n", connectMillis,
+                    BenchmarkSupport.megabytes(heapAfterConnect));
+            System.out.printf("  %d slot changes over %d s -> %d delta frames published%n", changes, seconds,
+                    framesPublished);
+            System.out.printf("  deltas received %d of %d expected (%d snapshots, %d stream errors)%n", frames,
+                    framesPublished * subscriberCount, snapshots, errors);
+            System.out.printf("  publish-to-receive latency p50 %d ms, p99 %d ms, p99.9 %d ms, max %d ms%n",
+                    percentile(histogram, 0.50), percentile(histogram, 0.99), percentile(histogram, 0.999),
+                    percentile(histogram, 1.0));
+            System.out.printf("  slow subscribers %d: feed stats %s%n", slowSubscribers, feed.getStats());
+        } finally {
+            clients.forEach(Process::destroyForcibly);
+            for (Socket socket : slowSockets) {
+                socket.close();
+            }
+            context.close();
+        }
+    }
+
+    // Subscribes with a tiny receive buffer and never reads
+    private static Socket slowSubscriber(int port) throws Exception {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(4096);
+        socket.connect(new java.net.InetSocketAddress("localhost", port));
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /api/parking-slots/stream HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return socket;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long percentile(long[] histogram, double quantile) {
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int millis = 0; millis < histogram.length; millis++) {
+            seen += histogram[millis];
+            if (seen >= Math.max(rank, 1)) return millis;
+        }
+        return histogram.length - 1;
+    }
+
+    // Child process: opens the given number of streams, prints READY once all have their snapshot,
+    // and on STOP prints the delta count and the latency histogram
+    public static class Subscribers {
+
+        public static void main(String[] args) throws Exception {
+            URI uri = URI.create(args[0]);
+            int count = Integer.parseInt(args[1]);
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30)).build();
+            HttpRequest request = HttpRequest.newBuilder(uri).header("Accept", "text/event-stream").build();
+            AtomicLongArray histogram = new AtomicLongArray(MAX_LATENCY_MILLIS + 1);
+            AtomicLong frames = new AtomicLong();
+            AtomicLong snapshots = new AtomicLong();
+            AtomicLong errors = new AtomicLong();
+            CountDownLatch ready = new CountDownLatch(count);
+            // Keeps the connection burst within the server's accept backlog
+            Semaphore connecting = new Semaphore(100);
+
+            for (int i = 0; i < count; i++) {
+                connecting.acquire();
+                client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(new Flow.Subscriber<String>() {
+                    private boolean connected;
+
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        subscription.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(String line) {
+                        if (!line.startsWith("data:")) return;
+                        if (line.startsWith("data:{\"version\"") && line.contains("\"slots\":")) {
+                            snapshots.incrementAndGet();
+                            if (!connected) {
+                                connected = true;
+                                connecting.release();
+                                ready.countDown();
+                            }
+                            return;
+                        }
+                        int at = line.indexOf("\"at\":") + 5;
+                        long publishedAt = Long.parseLong(line, at, line.indexOf(',', at), 10);
+                        long latency = Math.min(System.currentTimeMillis() - publishedAt, MAX_LATENCY_MILLIS);
+                        histogram.incrementAndGet((int) Math.max(latency, 0));
+                        frames.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        errors.incrementAndGet();
+                        if (!connected) {
+                            connecting.release();
+                            ready.countDown();
+                        }
+                    }
+
+                    @Override
+                    public void onComplete() {
+                    }
+                }));
+            }
+            ready.await();
+            PrintWriter out = new PrintWriter(System.out, true);
+            out.println("READY " + count);
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+            while (!"STOP".equals(in.readLine())) {
+                Thread.onSpinWait();
+            }
+            out.println("RESULT " + frames.get() + " " + snapshots.get() + " " + errors.get());
+            StringBuilder buckets = new StringBuilder("HIST");
+            for (int millis = 0; millis < histogram.length(); millis++) {
+                long bucket = histogram.get(millis);
+                if (bucket > 0) buckets.append(' ').append(millis).append(':').append(bucket);
+            }
+            out.println(buckets);
+            System.exit(0);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.parking.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+// Captures the SQL and bound parameters of the prepared statements the application executes, so
+// QueryPlanCheck can explain exactly the queries Hibernate generated. Registered by BenchmarkContext
+// and inactive unless benchmark.record-statements is set.
+public class StatementRecorder implements BeanPostProcessor, EnvironmentAware {
+
+    public record RecordedStatement(String sql, List<Object> parameters) {
+    }
+
+    private static final ThreadLocal<List<RecordedStatement>> RECORDED = new ThreadLocal<>();
+
+    private boolean enabled;
+
+    // Runs the action and returns the statements it executed on this thread
+    public static List<RecordedStatement> record(Runnable action) {
+        List<RecordedStatement> recorded = new ArrayList<>();
+        RECORDED.set(recorded);
+        try {
+            action.run();
+        } finally {
+            RECORDED.remove();
+        }
+        return recorded;
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        enabled = environment.getProperty("benchmark.record-statements", Boolean.class, false);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource dataSource)) return bean;
+        return wrap(dataSource, DataSource.class, null);
+    }
+
+    private <T> T wrap(T target, Class<T> type, String sql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            String name = method.getName();
+            if (target instanceof PreparedStatement) {
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                } else if (name.startsWith("execute") && RECORDED.get() != null) {
+                    RECORDED.get().add(new RecordedStatement(sql, new ArrayList<>(parameters.values())));
+                }
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection connection) return wrap(connection, Connection.class, null);
+            if (result instanceof PreparedStatement statement && name.equals("prepareStatement")) {
+                return wrap(statement, PreparedStatement.class, (String) args[0]);
+            }
+            return result;
+        }));
+    }
+}
@@ -0,0 +1,86 @@
+package com.parking.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.parking.security.AuthTokenFilter;
+import com.parking.security.JwtUtils;
+import com.parking.security.UserDetailsServiceImpl;
+
+// AuthTokenFilter end to end on a mock request from the running application: header parsing,
+// token verification or cache hit, the optional active check and setting the security context.
+// Modes: the verified-token cache on (default), off, and on with app.jwt.check-user-active.
+// AuthFilterBenchmark compares the same modes against the previous filter outside JMH.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenFilterBenchmark {
+
+    @Param({ "cache", "no-cache", "cache-active-check" })
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private AuthTokenFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start("logging.level.root=warn", "logging.level.com.parking=warn",
+                "app.jwt.token-cache.max-size=" + ("no-cache".equals(mode) ? 0 : 10000),
+                "app.jwt.check-user-active=" + "cache-active-check".equals(mode));
+        filter = context.getBean(AuthTokenFilter.class);
+        UserDetails admin = context.getBean(UserDetailsServiceImpl.class).loadUserByUsername("admin");
+        authorization = "Bearer " + context.getBean(JwtUtils.class).generateJwtToken(
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+        if (authenticatedRequest() == null) {
+            throw new IllegalStateException("Request was not authenticated");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public Authentication anonymousRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/parking-slots/available");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,93 @@
+package com.parking.benchmarks;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parking.repository.UserRepository;
+import com.parking.service.UserService;
+import com.parking.util.StatementMetrics;
+
+// JDBC statements, time and payload of listing every user: the previous path (all User entities
+// serialized with their lazy roles, as GET /api/admin/users did under open-in-view) versus the
+// roles-joined query mapped to UserSummary, then GET /api/admin/users (JSON and NDJSON) end to end
+// with the statement count the request metrics recorded.
+//
+// Options: -Dusers=50000 -Diterations=3
+public class UserListingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int userCount = Integer.getInteger("users", 50_000);
+        int iterations = Integer.getInteger("iterations", 3);
+
+        ConfigurableApplicationContext context = BenchmarkContext.start("logging.level.com.parking=warn");
+        try {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            BenchmarkData.seedUsers(jdbcTemplate, userCount);
+            UserRepository userRepository = context.getBean(UserRepository.class);
+            UserService userService = context.getBean(UserService.class);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            transaction.setReadOnly(true);
+
+            System.out.printf("%nListing %d users%n", userCount + 1);
+            for (int i = 0; i < iterations; i++) {
+                run("entities + lazy roles", () -> transaction.execute(status ->
+                        serialize(objectMapper, userRepository.findAll())));
+                run("roles joined, UserSummary", () -> transaction.execute(status ->
+                        serialize(objectMapper, userService.getAllUsers())));
+            }
+
+            BenchmarkHttp http = new BenchmarkHttp(context);
+            String token = http.signInAsAdmin();
+            for (String accept : List.of("application/json", "application/x-ndjson")) {
+                long start = System.nanoTime();
+                HttpResponse<String> response = http.client().send(HttpRequest.newBuilder(http.uri("/api/admin/users"))
+                        .header("Authorization", "Bearer " + token).header("Accept", accept).GET().build(),
+                        HttpResponse.BodyHandlers.ofString());
+                double millis = BenchmarkSupport.millisSince(start);
+                if (response.statusCode() != 200 || response.body().contains("\"password\"")) {
+                    throw new IllegalStateException("Unexpected user listing: " + response.statusCode());
+                }
+                System.out.printf("  GET /api/admin/users %-22s %9.1f ms %10s%n", accept, millis,
+                        BenchmarkSupport.megabytes(response.body().length()));
+            }
+            HttpResponse<String> metrics = http.client().send(HttpRequest.newBuilder(http.uri("/actuator/prometheus"))
+                    .header("Authorization", "Bearer " + token).GET().build(), HttpResponse.BodyHandlers.ofString());
+            metrics.body().lines()
+                    .filter(line -> line.startsWith("parking_http_request_statements_max")
+                            && line.contains("uri=\"/api/admin/users\""))
+                    .forEach(line -> System.out.println("  " + line));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void run(String label, Listing listing) throws Exception {
+        StatementMetrics.reset();
+        long start = System.nanoTime();
+        byte[] json = listing.run();
+        double millis = BenchmarkSupport.millisSince(start);
+        System.out.printf("  %-28s %8d statements %9.1f ms %10s%n", label, StatementMetrics.statements(), millis,
+                BenchmarkSupport.megabytes(json.length));
+    }
+
+    private static byte[] serialize(ObjectMapper objectMapper, Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Listing {
+        byte[] run() throws Exception;
+    }
+}
@@ -0,0 +1,119 @@
+package com.parking.benchmarks;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Closed-loop load on a JDBC-bound endpoint (GET /api/bookings/user/{id}) with many concurrent
+// clients, comparing the default platform-thread mode, the same with the connection pool of the
+// virtual-threads profile, and the virtual-threads profile itself. Every statement and commit is
+// delayed by dbLatencyMs to stand in for the round trip to a database server.
+//
+// Options: -Dclients=1000 -Dseconds=20 -Dwarmup=5 -DdbLatencyMs=2
+public class VirtualThreadBenchmark {
+
+    // Latency histogram in 100 µs buckets up to 60 s
+    private static final int BUCKETS = 600_000;
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("clients", 1000);
+        int seconds = Integer.getInteger("seconds", 20);
+        int warmup = Integer.getInteger("warmup", 5);
+        String dbLatencyMs = System.getProperty("dbLatencyMs", "2");
+
+        System.out.printf("%nGET /api/bookings/user/{id}, %d clients, %s ms per statement, %d s measured%n",
+                clients, dbLatencyMs, seconds);
+        run("platform threads (200 workers, pool 10)", clients, seconds, warmup,
+                "benchmark.db-latency-ms=" + dbLatencyMs);
+        run("platform threads (200 workers, pool 40)", clients, seconds, warmup,
+                "benchmark.db-latency-ms=" + dbLatencyMs, "spring.datasource.hikari.maximum-pool-size=40");
+        run("virtual-threads profile (pool 40)", clients, seconds, warmup,
+                "benchmark.db-latency-ms=" + dbLatencyMs, "spring.profiles.active=virtual-threads");
+    }
+
+    private static void run(String label, int clients, int seconds, int warmup, String... overrides)
+            throws Exception {
+        List<String> properties = new ArrayList<>(List.of(overrides));
+        properties.add("logging.level.com.parking=warn");
+        ConfigurableApplicationContext context = BenchmarkContext.start(properties.toArray(String[]::new));
+        try {
+            BenchmarkHttp http = new BenchmarkHttp(context);
+            String token = http.signInAsAdmin();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(http.uri("/api/bookings/user/" + UUID.randomUUID()))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+
+            AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+            AtomicLong completed = new AtomicLong();
+            AtomicLong errors = new AtomicLong();
+            long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmup);
+            long measureUntil = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+            int peakThreads = 0;
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < clients; i++) {
+                    executor.submit(() -> {
+                        while (System.nanoTime() < measureUntil) {
+                            long start = System.nanoTime();
+                            int status;
+                            try {
+                                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            } catch (Exception e) {
+                                status = -1;
+                            }
+                            long end = System.nanoTime();
+                            if (start < measureFrom || end > measureUntil) continue;
+                            if (status != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                            histogram.incrementAndGet((int) Math.min((end - start) / 100_000, BUCKETS - 1));
+                            completed.incrementAndGet();
+                        }
+                        return null;
+                    });
+                    // Spread the connection burst over a second, within Tomcat's accept backlog
+                    Thread.sleep(Duration.ofNanos(1_000_000_000L / clients));
+                }
+                while (System.nanoTime() < measureUntil) {
+                    peakThreads = Math.max(peakThreads, Thread.activeCount());
+                    Thread.sleep(200);
+                }
+            }
+
+            System.out.printf("  %-42s %8.0f req/s  p50 %7.1f ms  p99 %7.1f ms  max %7.1f ms  errors %d  "
+                    + "platform threads %d%n", label, completed.get() / (double) seconds,
+                    percentile(histogram, 0.50), percentile(histogram, 0.99), percentile(histogram, 1.0),
+                    errors.get(), peakThreads);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static double percentile(AtomicLongArray histogram, double quantile) {
+        long total = 0;
+        for (int i = 0; i < histogram.length(); i++) {
+            total += histogram.get(i);
+        }
+        long rank = Math.max((long) Math.ceil(total * quantile), 1);
+        long seen = 0;
+        for (int i = 0; i < histogram.length(); i++) {
+            seen += histogram.get(i);
+            if (seen >= rank) return (i + 1) / 10.0;
+        }
+        return histogram.length() / 10.0;
+    }
+}